@@ -0,0 +1,277 @@
+/*
+ * Copyright 2009-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.jdt.core.groovy.tests.locations;
+
+import static org.eclipse.jdt.groovy.core.tests.GroovyBundle.isAtLeastGroovy;
+import static org.eclipse.jdt.groovy.core.tests.GroovyBundle.isParrotParser;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Map;
+
+import groovy.lang.GroovyClassLoader;
+
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.Comment;
+import org.codehaus.groovy.ast.FieldNode;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.expr.Expression;
+import org.codehaus.groovy.ast.stmt.Statement;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.ErrorCollector;
+import org.codehaus.groovy.control.SourceUnit;
+import org.eclipse.jdt.groovy.core.util.DepthFirstVisitor;
+import org.eclipse.jdt.groovy.core.util.ReflectionUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that reparsing only the edited block or closure of a source gives the
+ * same AST and comments as parsing all of it.
+ */
+public final class IncrementalParseTests {
+
+    private static final String CACHE_SIZE = "greclipse.antlr4.reparse.cacheSize";
+
+    private static int sourceCount;
+
+    @Before
+    public void setUp() {
+        assumeTrue(isAtLeastGroovy(30) && isParrotParser());
+        System.setProperty(CACHE_SIZE, "8");
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(CACHE_SIZE);
+    }
+
+    private static SourceUnit parse(String name, String text, boolean reparse) {
+        CompilerConfiguration config = new CompilerConfiguration();
+        if (reparse) {
+            config.getOptimizationOptions().put("greclipse.reparse", Boolean.TRUE);
+        }
+        SourceUnit sourceUnit = new SourceUnit(name, text, config, new GroovyClassLoader(), new ErrorCollector(config));
+        sourceUnit.parse();
+        sourceUnit.completePhase();
+        sourceUnit.convert();
+        assertFalse(sourceUnit.getErrorCollector().hasErrors());
+        return sourceUnit;
+    }
+
+    /**
+     * @return the parse tree cached for the source or {@code null}
+     */
+    private static Object getCachedTree(String name) throws Exception {
+        Class<?> cacheType = Class.forName("org.apache.groovy.parser.antlr4.ParseTreeCache", true, SourceUnit.class.getClassLoader());
+        Map<String, ?> cache = ReflectionUtils.getPrivateField(cacheType, "CACHE", null);
+        Object entry;
+        synchronized (cache) {
+            entry = cache.get(name);
+        }
+        return (entry != null ? ReflectionUtils.getPrivateField(entry.getClass(), "tree", entry) : null);
+    }
+
+    /**
+     * Parses {@code before} and then {@code after} with reparsing enabled and
+     * compares the result with a full parse of {@code after}.
+     *
+     * @param partial whether {@code after} is expected to be parsed in part
+     */
+    private static void assertReparse(String before, String after, boolean partial) throws Exception {
+        String name = "Reparse" + (++sourceCount) + ".groovy";
+
+        parse(name, before, true);
+        Object tree = getCachedTree(name);
+        assertNotNull(tree);
+
+        SourceUnit incremental = parse(name, after, true);
+        Object next = getCachedTree(name);
+        if (partial) {
+            assertSame("expected the cached tree to be updated", tree, next);
+        } else {
+            assertNotNull(next);
+            assertFalse("expected a full parse", tree == next);
+        }
+
+        SourceUnit full = parse(name, after, false);
+        assertEquals(describe(full), describe(incremental));
+    }
+
+    private static String describe(SourceUnit sourceUnit) {
+        StringBuilder sb = new StringBuilder();
+        new DepthFirstVisitor() {
+            @Override
+            public void visitClass(ClassNode node) {
+                append(node);
+                super.visitClass(node);
+            }
+
+            @Override
+            public void visitField(FieldNode node) {
+                append(node);
+                super.visitField(node);
+            }
+
+            @Override
+            public void visitMethod(MethodNode node) {
+                append(node);
+                super.visitMethod(node);
+            }
+
+            @Override
+            protected void visitExpression(Expression expression) {
+                append(expression);
+                super.visitExpression(expression);
+            }
+
+            @Override
+            protected void visitStatement(Statement statement) {
+                append(statement);
+                super.visitStatement(statement);
+            }
+
+            private void append(ASTNode node) {
+                sb.append(node.getClass().getSimpleName()).append(' ').append(node.getText());
+                sb.append(" @").append(node.getLineNumber()).append(':').append(node.getColumnNumber());
+                sb.append('-').append(node.getLastLineNumber()).append(':').append(node.getLastColumnNumber());
+                sb.append(" [").append(node.getStart()).append("..").append(node.getEnd()).append("]\n");
+            }
+        }.visitModule(sourceUnit.getAST());
+
+        for (Comment comment : sourceUnit.getComments()) {
+            sb.append("Comment ").append(comment);
+            sb.append(" @").append(comment.sline).append(':').append(comment.scol);
+            sb.append('-').append(comment.eline).append(':').append(comment.ecol).append('\n');
+        }
+        return sb.toString();
+    }
+
+    //--------------------------------------------------------------------------
+
+    @Test
+    public void testMethodBody() throws Exception {
+        //@formatter:off
+        String before =
+            "class C {\n" +
+            "  // leading\n" +
+            "  def m() {\n" +
+            "    def a = 1\n" +
+            "    print a // trailing\n" +
+            "  }\n" +
+            "  /* after */ def n() { 2 }\n" +
+            "}\n";
+        //@formatter:on
+        String after = before.replace("def a = 1\n", "def a = 1\n    def b = a + 2\n");
+
+        assertReparse(before, after, true);
+    }
+
+    @Test
+    public void testMethodBodyOnOneLine() throws Exception {
+        String before = "class C { def m() { 1 } /* x */ def n() { 2 } }\n";
+        String after = before.replace("{ 1 }", "{ 1 + 10 }");
+
+        assertReparse(before, after, true);
+    }
+
+    @Test
+    public void testClosure() throws Exception {
+        //@formatter:off
+        String before =
+            "def list = [1, 2].collect { it * 2 }\n" +
+            "// done\n" +
+            "print list\n";
+        //@formatter:on
+        String after = before.replace("it * 2", "it * 2 +\n  it");
+
+        assertReparse(before, after, true);
+    }
+
+    @Test
+    public void testNestedClosure() throws Exception {
+        //@formatter:off
+        String before =
+            "[1].each { x ->\n" +
+            "  [2].each { y -> print x + y }\n" +
+            "  /* inner */\n" +
+            "}\n";
+        //@formatter:on
+        String after = before.replace("x + y", "x * y");
+
+        assertReparse(before, after, true);
+    }
+
+    @Test
+    public void testGStringExpression() throws Exception {
+        //@formatter:off
+        String before =
+            "def m(alpha) {\n" +
+            "  def s = \"x ${alpha.beta} y\" // note\n" +
+            "  s\n" +
+            "}\n";
+        //@formatter:on
+        String after = before.replace("beta", "gamma.delta");
+
+        assertReparse(before, after, true);
+    }
+
+    @Test
+    public void testBackslash() throws Exception {
+        String before = "def m() {\n  def s = 'a'\n}\n";
+        String after = before.replace("'a'", "'a\\n'");
+
+        assertReparse(before, after, false);
+    }
+
+    @Test
+    public void testTripleQuote() throws Exception {
+        String before = "def m() {\n  def s = 'a'\n}\n";
+        String after = before.replace("'a'", "'''a'''");
+
+        assertReparse(before, after, false);
+    }
+
+    @Test
+    public void testSlashy() throws Exception {
+        String before = "def m() {\n  def r = 1\n}\n";
+        String after = before.replace("= 1", "= 1 / 2");
+
+        assertReparse(before, after, false);
+    }
+
+    @Test
+    public void testDollar() throws Exception {
+        String before = "def m(y) {\n  def s = \"x\"\n}\n";
+        String after = before.replace("\"x\"", "\"x$y\"");
+
+        assertReparse(before, after, false);
+    }
+
+    @Test
+    public void testNotCachedWithoutOption() throws Exception {
+        String name = "Reparse" + (++sourceCount) + ".groovy";
+        parse(name, "def m() {\n  1\n}\n", false);
+
+        assertNull(getCachedTree(name));
+    }
+}
@@ -17,6 +17,7 @@ package org.eclipse.jdt.core.groovy.tests.search;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
@@ -30,6 +31,7 @@ import org.eclipse.jdt.core.search.SearchEngine;
 import org.eclipse.jdt.core.search.SearchMatch;
 import org.eclipse.jdt.core.search.SearchParticipant;
 import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.SearchRequestor;
 import org.eclipse.jdt.groovy.search.TypeRequestorFactory;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -912,8 +914,49 @@ public final class MethodReferenceSearchTests extends SearchTestSuite {
         assertEquals("Bar.groovy", ((IJavaElement) matches.get(0).getElement()).getResource().getName());
     }
 
+    @Test
+    public void testParallelSearch() throws Exception {
+        GroovyCompilationUnit first = createUnit("First", FIRST_CONTENTS_CLASS_FOR_METHODS);
+        for (int i = 0; i < 8; i += 1) {
+            createUnit("Second" + i, "new First().xxx()\nnew First()\n.\nxxx()\n");
+        }
+        IMethod method = (IMethod) findType("First", first).getChildren()[0];
+
+        List<String> expected = searchInAcceptOrder(method);
+        assertEquals(16, expected.size());
+
+        String parallelism = System.setProperty("greclipse.search.parallelism", "4");
+        try {
+            assertEquals(expected, searchInAcceptOrder(method));
+        } finally {
+            if (parallelism == null) {
+                System.clearProperty("greclipse.search.parallelism");
+            } else {
+                System.setProperty("greclipse.search.parallelism", parallelism);
+            }
+        }
+    }
+
     //--------------------------------------------------------------------------
 
+    /**
+     * @return matches in the order they are reported (not sorted like {@link #searchRequestor})
+     */
+    private static List<String> searchInAcceptOrder(IMethod method) throws Exception {
+        List<String> matches = new ArrayList<>();
+        new SearchEngine().search(
+            SearchPattern.createPattern(method, IJavaSearchConstants.REFERENCES),
+            new SearchParticipant[] {SearchEngine.getDefaultSearchParticipant()},
+            SearchEngine.createJavaSearchScope(new IJavaElement[] {method.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT)}, false),
+            new SearchRequestor() {
+                @Override
+                public void acceptSearchMatch(SearchMatch match) {
+                    matches.add(((IJavaElement) match.getElement()).getResource().getName() + ": " + MockPossibleMatch.printMatch(match));
+                }
+            }, new NullProgressMonitor());
+        return matches;
+    }
+
     private void doTestForTwoMethodReferencesInScript(String secondContents) throws Exception {
         doTestForTwoMethodReferences(FIRST_CONTENTS_CLASS_FOR_METHODS, secondContents, true, 3, "xxx");
     }
@@ -43,6 +43,7 @@ import org.codehaus.groovy.control.io.InputStreamReaderSource;
 import org.codehaus.groovy.control.io.ReaderSource;
 import org.codehaus.groovy.control.messages.ExceptionMessage;
 import org.codehaus.groovy.control.messages.SimpleMessage;
+import org.codehaus.groovy.eclipse.PhaseProfiler;
 import org.codehaus.groovy.syntax.SyntaxException;
 import org.codehaus.groovy.tools.GroovyClass;
 import org.codehaus.groovy.transform.ASTTransformationVisitor;
@@ -58,6 +59,7 @@ import java.net.URL;
 import java.security.CodeSource;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -92,6 +94,9 @@ public class CompilationUnit extends ProcessingUnit {
 
     protected CompileUnit ast;        // The overall AST for this CompilationUnit.
     protected List<GroovyClass> generatedClasses;  // The classes generated during classgen.
+    // GRECLIPSE add
+    private final Map<SourceUnit, List<GroovyClass>> generatedClassesBySource = new HashMap<>();
+    // GRECLIPSE end
 
     protected Verifier verifier;   // For use by verify().
 
@@ -356,6 +361,15 @@ public class CompilationUnit extends ProcessingUnit {
         return generatedClasses;
     }
 
+    // GRECLIPSE add
+    /**
+     * Get the GroovyClasses generated by compile() for the given source.
+     */
+    public List<GroovyClass> getClasses(SourceUnit source) {
+        return generatedClassesBySource.getOrDefault(source, Collections.emptyList());
+    }
+    // GRECLIPSE end
+
     /**
      * Convenience routine to get the first ClassNode, for
      * when you are sure there is only one.
@@ -853,6 +867,9 @@ public class CompilationUnit extends ProcessingUnit {
 
             byte[] bytes = ((ClassWriter) visitor).toByteArray();
             generatedClasses.add(new GroovyClass(classNode.getName(), bytes/*GRECLIPSE add*/, classNode, source/*GRECLIPSE end*/));
+            // GRECLIPSE add
+            generatedClassesBySource.computeIfAbsent(source, x -> new ArrayList<>()).add(generatedClasses.get(generatedClasses.size() - 1));
+            // GRECLIPSE end
 
             //
             // Handle any callback that's been set
@@ -975,8 +992,12 @@ public class CompilationUnit extends ProcessingUnit {
             SourceUnit source = sources.get(name);
             if ((source.phase < phase) || (source.phase == phase && !source.phaseComplete)) {
                 try {
+                    // GRECLIPSE add
+                    long[] mark = (profiler != null ? profiler.start() : null);
+                    // GRECLIPSE end
                     body.call(source);
                     // GRECLIPSE add
+                    if (mark != null) profiler.end(name, getPhaseDescription(), mark);
                     if (phase == Phases.CONVERSION && phaseOperations[phase].getLast() == body) {
                         if (progressListener != null) progressListener.parseComplete(phase, name);
                     }
@@ -1138,7 +1159,13 @@ public class CompilationUnit extends ProcessingUnit {
                         iterator.next();
                         offset++;
                     }
+                    // GRECLIPSE add
+                    long[] mark = (profiler != null ? profiler.start() : null);
+                    // GRECLIPSE end
                     body.call(context, new GeneratorContext(this.ast, offset), classNode);
+                    // GRECLIPSE add
+                    if (mark != null) profiler.end(context != null ? context.getName() : classNode.getName(), getPhaseDescription(), mark);
+                    // GRECLIPSE end
                 }
             } catch (CompilationFailedException e) {
                 // fall through, getErrorReporter().failIfErrors() will trigger
@@ -1267,6 +1294,17 @@ public class CompilationUnit extends ProcessingUnit {
         this.progressListener = progressListener;
     }
 
+    /**
+     * @return profiler that records phase and transform costs or {@code null}
+     */
+    public PhaseProfiler getProfiler() {
+        return this.profiler;
+    }
+
+    public void setProfiler(PhaseProfiler profiler) {
+        this.profiler = profiler;
+    }
+
     public ResolveVisitor getResolveVisitor() {
         return this.resolveVisitor;
     }
@@ -1298,5 +1336,6 @@ public class CompilationUnit extends ProcessingUnit {
 
     public final boolean allowTransforms;
     private ProgressListener progressListener;
+    private PhaseProfiler profiler;
     // GRECLIPSE end
 }
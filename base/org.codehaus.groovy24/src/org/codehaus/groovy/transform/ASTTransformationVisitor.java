@@ -40,6 +40,7 @@ import org.codehaus.groovy.control.SourceUnit;
 import org.codehaus.groovy.control.messages.SimpleMessage;
 import org.codehaus.groovy.control.messages.WarningMessage;
 import org.codehaus.groovy.eclipse.GroovyLogManager;
+import org.codehaus.groovy.eclipse.PhaseProfiler;
 import org.codehaus.groovy.eclipse.TraceCategory;
 import org.codehaus.groovy.runtime.DefaultGroovyMethods;
 import org.codehaus.groovy.syntax.SyntaxException;
@@ -182,6 +183,8 @@ public final class ASTTransformationVisitor extends ClassCodeVisitorSupport {
                     // GRECLIPSE add
                     try {
                         long t0 = System.nanoTime();
+                        PhaseProfiler profiler = context.getCompilationUnit().getProfiler();
+                        long[] mark = (profiler != null ? profiler.start() : null);
                         boolean okToSet = (source != null && source.getErrorCollector() != null);
                         try {
                             if (okToSet) {
@@ -198,6 +201,9 @@ public final class ASTTransformationVisitor extends ClassCodeVisitorSupport {
                                 source.getErrorCollector().transformActive = false;
                             }
                         }
+                        if (mark != null) {
+                            profiler.end(source.getName(), "transform " + snt.getClass().getName(), mark);
+                        }
                         if (GroovyLogManager.manager.hasLoggers()) {
                             long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
                             String sourceName = DefaultGroovyMethods.last(source.getName().split("/|\\\\"));
@@ -413,6 +419,8 @@ public final class ASTTransformationVisitor extends ClassCodeVisitorSupport {
                             if (isBuggered) return;
                             try {
                                 long t0 = System.nanoTime();
+                                PhaseProfiler profiler = compilationUnit.getProfiler();
+                                long[] mark = (profiler != null ? profiler.start() : null);
                                 boolean okToSet = (source != null && source.getErrorCollector() != null);
                                 try {
                                     if (okToSet) {
@@ -426,6 +434,9 @@ public final class ASTTransformationVisitor extends ClassCodeVisitorSupport {
                                         source.getErrorCollector().transformActive = false;
                                     }
                                 }
+                                if (mark != null) {
+                                    profiler.end(source.getName(), "transform " + instance.getClass().getName(), mark);
+                                }
                                 if (GroovyLogManager.manager.hasLoggers()) {
                                     long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
                                     String sourceName = DefaultGroovyMethods.last(source.getName().split("/|\\\\"));
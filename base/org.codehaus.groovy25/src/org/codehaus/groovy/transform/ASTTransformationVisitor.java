@@ -41,6 +41,7 @@ import org.codehaus.groovy.control.SourceUnit;
 import org.codehaus.groovy.control.messages.SimpleMessage;
 import org.codehaus.groovy.control.messages.WarningMessage;
 import org.codehaus.groovy.eclipse.GroovyLogManager;
+import org.codehaus.groovy.eclipse.PhaseProfiler;
 import org.codehaus.groovy.eclipse.TraceCategory;
 import org.codehaus.groovy.runtime.DefaultGroovyMethods;
 import org.codehaus.groovy.syntax.SyntaxException;
@@ -179,6 +180,8 @@ public final class ASTTransformationVisitor extends ClassCodeVisitorSupport {
                     // GRECLIPSE add
                     try {
                         long t0 = System.nanoTime();
+                        PhaseProfiler profiler = context.getCompilationUnit().getProfiler();
+                        long[] mark = (profiler != null ? profiler.start() : null);
                         boolean okToSet = (source != null && source.getErrorCollector() != null);
                         try {
                             if (okToSet) {
@@ -195,6 +198,9 @@ public final class ASTTransformationVisitor extends ClassCodeVisitorSupport {
                                 source.getErrorCollector().transformActive = false;
                             }
                         }
+                        if (mark != null) {
+                            profiler.end(source.getName(), "transform " + snt.getClass().getName(), mark);
+                        }
                         if (GroovyLogManager.manager.hasLoggers()) {
                             long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
                             String sourceName = DefaultGroovyMethods.last(source.getName().split("/|\\\\"));
@@ -426,6 +432,8 @@ public final class ASTTransformationVisitor extends ClassCodeVisitorSupport {
                             if (isBuggered) return;
                             try {
                                 long t0 = System.nanoTime();
+                                PhaseProfiler profiler = compilationUnit.getProfiler();
+                                long[] mark = (profiler != null ? profiler.start() : null);
                                 boolean okToSet = (source != null && source.getErrorCollector() != null);
                                 try {
                                     if (okToSet) {
@@ -439,6 +447,9 @@ public final class ASTTransformationVisitor extends ClassCodeVisitorSupport {
                                         source.getErrorCollector().transformActive = false;
                                     }
                                 }
+                                if (mark != null) {
+                                    profiler.end(source.getName(), "transform " + instance.getClass().getName(), mark);
+                                }
                                 if (GroovyLogManager.manager.hasLoggers()) {
                                     long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
                                     String sourceName = DefaultGroovyMethods.last(source.getName().split("/|\\\\"));
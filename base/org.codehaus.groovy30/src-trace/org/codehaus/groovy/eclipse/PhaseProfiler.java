@@ -0,0 +1,204 @@
+/*
+ * Copyright 2009-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Records the time spent and memory allocated by the compiler in each phase
+ * and AST transform for each source unit of a compilation.  Phase figures
+ * include the transforms that run in the phase.
+ * <p>
+ * Profiling is enabled by setting {@code -Dgreclipse.profile.compiler} to the
+ * directory that should receive the reports.  Each {@link #report} writes one
+ * JSON and one CSV file there and logs a summary line per source unit and
+ * activity to {@link GroovyLogManager} (category {@link TraceCategory#COMPILER}).
+ * Allocation figures are reported as 0 if the JVM cannot measure them.
+ */
+public final class PhaseProfiler {
+
+    private static final String REPORT_DIR = System.getProperty("greclipse.profile.compiler");
+
+    /**
+     * @return new profiler if profiling is enabled; otherwise {@code null}
+     */
+    public static PhaseProfiler newInstance(final String title) {
+        return (REPORT_DIR != null ? new PhaseProfiler(title) : null);
+    }
+
+    //--------------------------------------------------------------------------
+
+    private static final class Stats {
+        long count, nanos, bytes;
+    }
+
+    private final String title;
+
+    /** Source unit name to activity name to totals, in the order first seen. */
+    private final Map<String, Map<String, Stats>> stats = new LinkedHashMap<>();
+
+    private PhaseProfiler(final String title) {
+        this.title = title;
+    }
+
+    /**
+     * @return mark to pass to {@link #end} once the activity is complete
+     */
+    public long[] start() {
+        return new long[] {System.nanoTime(), ALLOCATED_BYTES.getAsLong()};
+    }
+
+    /**
+     * Adds the time and allocation since {@code mark} to the activity totals of
+     * the source unit.  Must be called on the thread that created the mark.
+     */
+    public void end(final String sourceName, final String activity, final long[] mark) {
+        long nanos = System.nanoTime() - mark[0];
+        long bytes = ALLOCATED_BYTES.getAsLong() - mark[1];
+        synchronized (stats) {
+            Stats total = stats.computeIfAbsent(String.valueOf(sourceName), x -> new LinkedHashMap<>()).computeIfAbsent(activity, x -> new Stats());
+            total.count += 1;
+            total.nanos += nanos;
+            total.bytes += bytes;
+        }
+    }
+
+    /**
+     * Logs and writes out the totals recorded so far and then clears them.
+     */
+    public void report() {
+        Map<String, Map<String, Stats>> snapshot;
+        synchronized (stats) {
+            if (stats.isEmpty()) {
+                return;
+            }
+            snapshot = new LinkedHashMap<>(stats);
+            stats.clear();
+        }
+
+        if (GroovyLogManager.manager.hasLoggers()) {
+            snapshot.forEach((source, activities) -> activities.forEach((activity, total) -> {
+                GroovyLogManager.manager.log(TraceCategory.COMPILER, "Profile " + title + ": " + source + " " + activity + " " +
+                    TimeUnit.NANOSECONDS.toMillis(total.nanos) + "ms " + (total.bytes / 1024) + "KB (" + total.count + "x)");
+            }));
+        }
+
+        if (!REPORT_DIR.isEmpty()) {
+            String name = "greclipse-compile-" + new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date()) + "-" + SEQUENCE.incrementAndGet();
+            File dir = new File(REPORT_DIR);
+            dir.mkdirs();
+            try {
+                writeJson(new File(dir, name + ".json"), snapshot);
+                writeCsv(new File(dir, name + ".csv"), snapshot);
+            } catch (IOException e) {
+                GroovyLogManager.manager.logException(TraceCategory.COMPILER, e);
+            }
+        }
+    }
+
+    private void writeJson(final File file, final Map<String, Map<String, Stats>> snapshot) throws IOException {
+        try (PrintWriter out = new PrintWriter(file, StandardCharsets.UTF_8.name())) {
+            out.println("{");
+            out.println("  \"title\": " + quote(title) + ",");
+            out.println("  \"sources\": [");
+            int i = 0;
+            for (Map.Entry<String, Map<String, Stats>> source : snapshot.entrySet()) {
+                out.println("    {");
+                out.println("      \"name\": " + quote(source.getKey()) + ",");
+                out.println("      \"activities\": [");
+                int j = 0;
+                for (Map.Entry<String, Stats> activity : source.getValue().entrySet()) {
+                    Stats total = activity.getValue();
+                    out.print("        {\"name\": " + quote(activity.getKey()) + ", \"count\": " + total.count +
+                        ", \"nanos\": " + total.nanos + ", \"allocatedBytes\": " + total.bytes + "}");
+                    out.println(++j < source.getValue().size() ? "," : "");
+                }
+                out.println("      ]");
+                out.println(++i < snapshot.size() ? "    }," : "    }");
+            }
+            out.println("  ]");
+            out.println("}");
+        }
+    }
+
+    private static void writeCsv(final File file, final Map<String, Map<String, Stats>> snapshot) throws IOException {
+        try (PrintWriter out = new PrintWriter(file, StandardCharsets.UTF_8.name())) {
+            out.println("source,activity,count,nanos,allocatedBytes");
+            snapshot.forEach((source, activities) -> activities.forEach((activity, total) -> {
+                out.println(csv(source) + "," + csv(activity) + "," + total.count + "," + total.nanos + "," + total.bytes);
+            }));
+        }
+    }
+
+    private static String quote(final String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String csv(final String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    //--------------------------------------------------------------------------
+
+    private static final LongSupplier ALLOCATED_BYTES = newAllocationCounter();
+
+    private static LongSupplier newAllocationCounter() {
+        try {
+            return Allocations.newCounter();
+        } catch (LinkageError | RuntimeException e) {
+            // com.sun.management is not available to this bundle or this JVM
+            return () -> 0L;
+        }
+    }
+
+    private static final class Allocations {
+        static LongSupplier newCounter() {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (threads instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threads;
+                if (bean.isThreadAllocatedMemorySupported()) {
+                    bean.setThreadAllocatedMemoryEnabled(true);
+                    return () -> bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+                }
+            }
+            return () -> 0L;
+        }
+    }
+}
@@ -37,6 +37,7 @@ import groovyjarjarantlr4.v4.runtime.tree.ParseTree;
 import groovyjarjarantlr4.v4.runtime.tree.TerminalNode;
 import org.apache.groovy.parser.antlr4.internal.DescriptiveErrorStrategy;
 import org.apache.groovy.parser.antlr4.internal.atnmanager.AtnManager;
+import org.apache.groovy.parser.antlr4.internal.atnmanager.ParserAtnManager;
 import org.apache.groovy.parser.antlr4.util.PositionConfigureUtils;
 import org.apache.groovy.parser.antlr4.util.StringUtils;
 import org.apache.groovy.util.Maps;
@@ -47,6 +48,9 @@ import org.codehaus.groovy.ast.ASTNode;
 import org.codehaus.groovy.ast.AnnotationNode;
 import org.codehaus.groovy.ast.ClassHelper;
 import org.codehaus.groovy.ast.ClassNode;
+// GRECLIPSE add
+import org.codehaus.groovy.ast.Comment;
+// GRECLIPSE end
 import org.codehaus.groovy.ast.ConstructorNode;
 import org.codehaus.groovy.ast.EnumConstantClassNode;
 import org.codehaus.groovy.ast.FieldNode;
@@ -455,6 +459,9 @@ public class AstBuilder extends GroovyParserBaseVisitor<Object> {
                 if (t instanceof GroovySyntaxError && GroovySyntaxError.LEXER == ((GroovySyntaxError) t).getSource()) {
                     throw t;
                 }
+                // GRECLIPSE add
+                ParserAtnManager.INSTANCE.recordFallback(sourceUnit.getName());
+                // GRECLIPSE end
 
                 result = buildCST(PredictionMode.LL);
             } finally {
@@ -494,9 +501,41 @@ public class AstBuilder extends GroovyParserBaseVisitor<Object> {
         return cfe;
     }
 
+    // GRECLIPSE add
+    /**
+     * Optimization option that lets a source be reparsed in part when it was
+     * parsed before; set for reconciles by {@code CompilationUnit#tweak}.
+     */
+    public static final String REPARSE = "greclipse.reparse";
+    // GRECLIPSE end
+
     public ModuleNode buildAST() {
         try {
+            /* GRECLIPSE edit -- reparse only the edited block or closure
             return (ModuleNode) this.visit(this.buildCST());
+            */
+            GroovyParserRuleContext tree = null;
+            String text = null;
+            if (Boolean.TRUE.equals(sourceUnit.getConfiguration().getOptimizationOptions().get(REPARSE))) {
+                text = ParseTreeCache.textOf(lexer.getInputStream());
+            }
+            if (text != null) {
+                ParseTreeCache.Entry entry = ParseTreeCache.reparse(sourceUnit.getName(), text);
+                if (entry != null) {
+                    tree = entry.tree;
+                    comments = entry.comments;
+                }
+            }
+            if (tree == null) {
+                tree = this.buildCST();
+                comments = lexer.getComments();
+            }
+            ModuleNode module = (ModuleNode) this.visit(tree);
+            if (text != null) {
+                ParseTreeCache.store(sourceUnit.getName(), text, (CompilationUnitContext) tree, comments);
+            }
+            return module;
+            // GRECLIPSE end
         } catch (Throwable t) {
             throw convertException(t);
         }
@@ -573,7 +612,7 @@ public class AstBuilder extends GroovyParserBaseVisitor<Object> {
             }
         }
         moduleNode.putNodeMetaData(LocationSupport.class, locationSupport);
-        sourceUnit.setComments(lexer.getComments());
+        sourceUnit.setComments(comments);
         // GRECLIPSE end
 
         return moduleNode;
@@ -5167,6 +5206,7 @@ public class AstBuilder extends GroovyParserBaseVisitor<Object> {
     private final GroovydocManager groovydocManager;
     // GRECLIPSE add
     private final LocationSupport locationSupport;
+    private List<Comment> comments;
     // GRECLIPSE add
     private final List<ClassNode> classNodeList = new LinkedList<>();
     private final Deque<ClassNode> classNodeStack = new ArrayDeque<>();
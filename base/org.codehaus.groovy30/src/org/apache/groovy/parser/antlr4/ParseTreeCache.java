@@ -0,0 +1,458 @@
+/*
+ * Copyright 2009-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.groovy.parser.antlr4;
+
+import static org.apache.groovy.parser.antlr4.GroovyParser.BlockContext;
+import static org.apache.groovy.parser.antlr4.GroovyParser.BlockStatementContext;
+import static org.apache.groovy.parser.antlr4.GroovyParser.ClosureContext;
+import static org.apache.groovy.parser.antlr4.GroovyParser.CompilationUnitContext;
+import static org.apache.groovy.parser.antlr4.GroovyParser.CreatorContext;
+import static org.apache.groovy.parser.antlr4.GroovyParser.GroovyParserRuleContext;
+import static org.apache.groovy.parser.antlr4.GroovyParser.LambdaBodyContext;
+import static org.apache.groovy.parser.antlr4.GroovyParser.ScriptStatementContext;
+import static org.apache.groovy.parser.antlr4.GroovyParser.StatementContext;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import groovyjarjarantlr4.v4.runtime.ANTLRErrorListener;
+import groovyjarjarantlr4.v4.runtime.BailErrorStrategy;
+import groovyjarjarantlr4.v4.runtime.CharStream;
+import groovyjarjarantlr4.v4.runtime.CharStreams;
+import groovyjarjarantlr4.v4.runtime.CommonToken;
+import groovyjarjarantlr4.v4.runtime.CommonTokenStream;
+import groovyjarjarantlr4.v4.runtime.IntStream;
+import groovyjarjarantlr4.v4.runtime.ParserRuleContext;
+import groovyjarjarantlr4.v4.runtime.RecognitionException;
+import groovyjarjarantlr4.v4.runtime.Recognizer;
+import groovyjarjarantlr4.v4.runtime.Token;
+import groovyjarjarantlr4.v4.runtime.atn.PredictionMode;
+import groovyjarjarantlr4.v4.runtime.misc.Interval;
+import groovyjarjarantlr4.v4.runtime.misc.ParseCancellationException;
+import groovyjarjarantlr4.v4.runtime.tree.ParseTree;
+import groovyjarjarantlr4.v4.runtime.tree.TerminalNode;
+import org.apache.groovy.parser.antlr4.internal.atnmanager.AtnManager;
+import org.codehaus.groovy.ast.Comment;
+
+/**
+ * Keeps the parse trees of recently parsed sources.  When a source is parsed
+ * again and the edit since its last parse lies between the braces of a block
+ * or closure, only that block or closure is lexed and parsed.  The result is
+ * spliced into the previous tree and the tokens that follow are shifted.  The
+ * AST is always built from the whole (spliced) tree; only lexing and parsing
+ * of the unchanged text is saved.
+ * <p>
+ * Reparsing is off by default.  It applies to reconciles only (see
+ * {@link AstBuilder#REPARSE}) and is enabled by setting system property
+ * {@code greclipse.antlr4.reparse.cacheSize} to the number of trees to keep.
+ */
+final class ParseTreeCache {
+
+    private ParseTreeCache() {}
+
+    private static int cacheSize() {
+        return Integer.getInteger("greclipse.antlr4.reparse.cacheSize", 0);
+    }
+
+    private static final Map<String, Entry> CACHE = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+            return size() > cacheSize();
+        }
+    };
+
+    static final class Entry {
+        final String text;
+        final CompilationUnitContext tree;
+        final List<Comment> comments;
+
+        private Entry(final String text, final CompilationUnitContext tree, final List<Comment> comments) {
+            this.text = text;
+            this.tree = tree;
+            this.comments = comments;
+        }
+    }
+
+    /**
+     * @return the complete text of the stream or {@code null} if the source
+     *     should not be cached (indexes of the stream are code points, which
+     *     differ from string indexes when there are supplementary characters)
+     */
+    static String textOf(final CharStream charStream) {
+        if (cacheSize() <= 0 || IntStream.UNKNOWN_SOURCE_NAME.equals(charStream.getSourceName())) {
+            return null;
+        }
+        String text = charStream.getText(Interval.of(0, charStream.size() - 1));
+        return (text.length() == charStream.size() ? text : null);
+    }
+
+    /**
+     * Takes the tree cached for the source and brings it up to date with the
+     * given text.  The caller has exclusive use of the returned tree until it
+     * is {@link #store stored} again.  If the text has to be parsed in full,
+     * the tree stays cached; while the text has syntax errors, later edits are
+     * still applied to the last tree without errors.
+     *
+     * @return updated tree and comments or {@code null} if the text has to be parsed in full
+     */
+    static Entry reparse(final String sourceName, final String text) {
+        Entry entry;
+        synchronized (CACHE) {
+            entry = CACHE.remove(sourceName);
+        }
+        if (entry == null) {
+            return null;
+        }
+        Entry result = reparse(entry, sourceName, text);
+        if (result == null) {
+            synchronized (CACHE) {
+                CACHE.putIfAbsent(sourceName, entry);
+            }
+        }
+        return result;
+    }
+
+    private static Entry reparse(final Entry entry, final String sourceName, final String text) {
+        String prev = entry.text;
+        if (prev.equals(text)) {
+            return new Entry(text, entry.tree, copyOf(entry.comments, 0, 0, 0));
+        }
+
+        int prevLength = prev.length(), nextLength = text.length(), n = Math.min(prevLength, nextLength);
+        int from = 0;
+        while (from < n && prev.charAt(from) == text.charAt(from)) {
+            from += 1;
+        }
+        int suffix = 0;
+        while (suffix < n - from && prev.charAt(prevLength - 1 - suffix) == text.charAt(nextLength - 1 - suffix)) {
+            suffix += 1;
+        }
+        int prevTo = prevLength - suffix, nextTo = nextLength - suffix;
+
+        GroovyParserRuleContext body = findBody(entry.tree, from, prevTo);
+        if (body == null || mayCloseEarlierToken(prev, text, from, prevTo, nextTo, body.start.getStartIndex())) {
+            return null;
+        }
+
+        List<Comment> bodyComments = new ArrayList<>();
+        GroovyParserRuleContext newBody = parse(body, text, sourceName, body.stop.getStopIndex() + (nextLength - prevLength), bodyComments);
+        if (newBody == null) {
+            return null;
+        }
+
+        // tokens and comments after the edit move by the change in length; those on the line the edit ends move across
+        int endLine = body.start.getLine() + count('\n', prev, body.start.getStartIndex(), prevTo);
+        int lineDelta = count('\n', text, from, nextTo) - count('\n', prev, from, prevTo);
+        int columnDelta = columnOf(text, nextTo) - columnOf(prev, prevTo);
+
+        List<Comment> comments = new ArrayList<>(entry.comments.size() + bodyComments.size());
+        for (Comment comment : entry.comments) {
+            if (compare(comment.sline, comment.scol - 1, body.start) < 0) {
+                comments.add(copyOf(comment, 0, 0, 0));
+            }
+        }
+        comments.addAll(bodyComments);
+        for (Comment comment : entry.comments) {
+            if (compare(comment.sline, comment.scol - 1, body.stop) > 0) {
+                comments.add(copyOf(comment, endLine, lineDelta, columnDelta));
+            }
+        }
+
+        shiftTokens(entry.tree, body, newBody, endLine, lineDelta, columnDelta, nextLength - prevLength);
+
+        ParserRuleContext parent = body.getParent();
+        parent.children.set(parent.children.indexOf(body), newBody);
+        newBody.setParent(parent);
+        newBody.invokingState = body.invokingState;
+
+        return new Entry(text, entry.tree, comments);
+    }
+
+    /**
+     * Caches the tree of a source that was parsed and converted without errors.
+     */
+    static void store(final String sourceName, final String text, final CompilationUnitContext tree, final List<Comment> comments) {
+        // drop references from the tree into the module that was built from it
+        Deque<ParseTree> todo = new ArrayDeque<>();
+        todo.push(tree);
+        while (!todo.isEmpty()) {
+            ParseTree node = todo.pop();
+            if (node instanceof GroovyParserRuleContext) {
+                GroovyParserRuleContext ctx = (GroovyParserRuleContext) node;
+                ctx.setMetaDataMap(null);
+                if (ctx.children != null) {
+                    for (ParseTree child : ctx.children) {
+                        todo.push(child);
+                    }
+                }
+            }
+        }
+
+        Entry entry = new Entry(text, tree, copyOf(comments, 0, 0, 0));
+        synchronized (CACHE) {
+            CACHE.put(sourceName, entry);
+        }
+    }
+
+    //--------------------------------------------------------------------------
+
+    /**
+     * Finds the innermost block or closure whose braces enclose the edit.
+     */
+    private static GroovyParserRuleContext findBody(final ParserRuleContext tree, final int from, final int to) {
+        GroovyParserRuleContext body = null;
+        ParserRuleContext node = tree;
+        search: while (node.children != null) {
+            for (ParseTree child : node.children) {
+                if (child instanceof ParserRuleContext) {
+                    ParserRuleContext ctx = (ParserRuleContext) child;
+                    if (ctx.start != null && ctx.stop != null &&
+                            ctx.start.getStartIndex() < from && to <= ctx.stop.getStopIndex()) {
+                        if (isBody(ctx)) {
+                            body = (GroovyParserRuleContext) ctx;
+                        }
+                        node = ctx;
+                        continue search;
+                    }
+                }
+            }
+            break;
+        }
+        return body;
+    }
+
+    private static boolean isBody(final ParserRuleContext ctx) {
+        if (ctx.start.getType() != GroovyParser.LBRACE || ctx.stop.getType() != GroovyParser.RBRACE) {
+            return false;
+        }
+        if (ctx instanceof ClosureContext) {
+            // a closure that begins a statement or lambda body may become a block
+            for (ParserRuleContext p = ctx.getParent(); p != null && p.start == ctx.start; p = p.getParent()) {
+                if (p instanceof StatementContext || p instanceof BlockStatementContext || p instanceof ScriptStatementContext || p instanceof LambdaBodyContext) {
+                    return false;
+                }
+            }
+            // a closure after "new T()" or "new T[n]" may become a class body or array initializer
+            return !followsCreator(ctx);
+        }
+        return (ctx instanceof BlockContext);
+    }
+
+    private static boolean followsCreator(final ParserRuleContext ctx) {
+        for (ParserRuleContext node = ctx; node.getParent() != null; node = node.getParent()) {
+            List<ParseTree> siblings = node.getParent().children;
+            for (int i = siblings.indexOf(node) - 1; i >= 0; i -= 1) {
+                Boolean result = endsWithCreator(siblings.get(i));
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return {@code null} if the tree has no tokens
+     */
+    private static Boolean endsWithCreator(final ParseTree tree) {
+        if (tree instanceof ParserRuleContext) {
+            ParserRuleContext ctx = (ParserRuleContext) tree;
+            if (ctx.children != null) {
+                for (int i = ctx.children.size() - 1; i >= 0; i -= 1) {
+                    Boolean result = endsWithCreator(ctx.children.get(i));
+                    if (result != null) {
+                        return (result || ctx instanceof CreatorContext);
+                    }
+                }
+            }
+            return null;
+        }
+        return Boolean.FALSE;
+    }
+
+    /**
+     * Checks if the edit may supply the end of a string or comment that opens
+     * before the block.  The lexer looks ahead for the end of such a token and
+     * falls back to shorter tokens if there is none, so the tokens before the
+     * block would change.  Triple-quoted strings may also have been cut short
+     * by an invalid escape, so any triple quote or backslash in the edit is
+     * treated as such.
+     */
+    private static boolean mayCloseEarlierToken(final String prev, final String text, final int from, final int prevTo, final int nextTo, final int bodyStart) {
+        if (prev.substring(from, prevTo).indexOf('\\') >= 0) {
+            return true;
+        }
+        String edit = text.substring(Math.max(0, from - 2), Math.min(text.length(), nextTo + 2));
+        if (edit.contains("'''") || edit.contains("\"\"\"") || edit.indexOf('\\') >= 0) {
+            return true;
+        }
+        for (String end : new String[] {"/", "*/", "/$"}) {
+            if (edit.contains(end) && prev.indexOf(end, bodyStart) < 0) {
+                return true;
+            }
+        }
+        // a dollar sign can also turn an open slashy string into a slashy GString
+        return (edit.indexOf('$') >= 0 && prev.indexOf('/', bodyStart) < 0);
+    }
+
+    /**
+     * Parses the new text of the block or closure.  The lexer starts at the
+     * opening brace, where its state does not depend on the preceding text.
+     *
+     * @return the new block or closure or {@code null} if it has errors or its
+     *     closing brace is not the one at {@code stop}
+     */
+    private static GroovyParserRuleContext parse(final GroovyParserRuleContext body, final String text, final String sourceName, final int stop, final List<Comment> comments) {
+        if (stop >= text.length() || text.charAt(stop) != '}') {
+            return null;
+        }
+        // lex the whole text; a stream cut off after the brace would end an open slashy string or comment early
+        CharStream charStream = CharStreams.fromString(text, sourceName);
+
+        for (PredictionMode mode : new PredictionMode[] {PredictionMode.SLL, PredictionMode.LL}) {
+            charStream.seek(body.start.getStartIndex());
+            GroovyLangLexer lexer = new GroovyLangLexer(charStream);
+            lexer.setLine(body.start.getLine());
+            lexer.setCharPositionInLine(body.start.getCharPositionInLine());
+            lexer.removeErrorListeners();
+            lexer.addErrorListener(BAIL);
+
+            GroovyLangParser parser = new GroovyLangParser(new CommonTokenStream(lexer));
+            parser.getInterpreter().setPredictionMode(mode);
+            parser.setErrorHandler(new BailErrorStrategy());
+            parser.removeErrorListeners();
+            parser.addErrorListener(BAIL);
+
+            // parsing has to wait until clearing is complete
+            AtnManager.READ_LOCK.lock();
+            try {
+                GroovyParserRuleContext result = (body instanceof BlockContext ? parser.block() : parser.closure());
+                if (result.stop == null || result.stop.getStopIndex() != stop) {
+                    return null;
+                }
+                for (Comment comment : lexer.getComments()) {
+                    // the parser reads one token past the closing brace
+                    if (compare(comment.sline, comment.scol - 1, result.stop) < 0) {
+                        comments.add(comment);
+                    }
+                }
+                return result;
+            } catch (GroovySyntaxError e) {
+                return null; // lexer error
+            } catch (RuntimeException e) {
+                if (mode == PredictionMode.LL) {
+                    return null;
+                }
+            } finally {
+                AtnManager.READ_LOCK.unlock();
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static final ANTLRErrorListener BAIL = new ANTLRErrorListener() {
+        @Override
+        public void syntaxError(final Recognizer recognizer, final Object offendingSymbol, final int line, final int charPositionInLine, final String msg, final RecognitionException e) {
+            throw new ParseCancellationException(msg, e);
+        }
+    };
+
+    /**
+     * Shifts the tokens after the block or closure that is replaced and points
+     * rule contexts that begin or end at its braces to the new braces.
+     */
+    private static void shiftTokens(final CompilationUnitContext tree, final GroovyParserRuleContext body, final GroovyParserRuleContext newBody,
+                                    final int endLine, final int lineDelta, final int columnDelta, final int indexDelta) {
+        int stopIndex = body.stop.getStopIndex();
+        Deque<ParseTree> todo = new ArrayDeque<>();
+        todo.push(tree);
+        while (!todo.isEmpty()) {
+            ParseTree node = todo.pop();
+            if (node instanceof TerminalNode) {
+                CommonToken token = (CommonToken) ((TerminalNode) node).getSymbol();
+                if (token.getStartIndex() > stopIndex) {
+                    token.setText(token.getText()); // detach from the previous text
+                    if (token.getLine() == endLine) {
+                        token.setCharPositionInLine(token.getCharPositionInLine() + columnDelta);
+                    }
+                    token.setLine(token.getLine() + lineDelta);
+                    token.setStartIndex(token.getStartIndex() + indexDelta);
+                    token.setStopIndex(token.getStopIndex() + indexDelta);
+                }
+            } else if (node != body) {
+                ParserRuleContext ctx = (ParserRuleContext) node;
+                if (ctx.start == body.start) ctx.start = newBody.start;
+                else if (ctx.start == body.stop) ctx.start = newBody.stop;
+                if (ctx.stop == body.stop) ctx.stop = newBody.stop;
+                else if (ctx.stop == body.start) ctx.stop = newBody.start;
+                if (ctx.children != null) {
+                    for (ParseTree child : ctx.children) {
+                        todo.push(child);
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<Comment> copyOf(final List<Comment> comments, final int endLine, final int lineDelta, final int columnDelta) {
+        List<Comment> copies = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            copies.add(copyOf(comment, endLine, lineDelta, columnDelta));
+        }
+        return copies;
+    }
+
+    private static Comment copyOf(final Comment comment, final int endLine, final int lineDelta, final int columnDelta) {
+        int sline = comment.sline, scol = comment.scol, eline = comment.eline, ecol = comment.ecol;
+        if (sline == endLine) scol += columnDelta;
+        if (eline == endLine) ecol += columnDelta;
+        String text = comment.toString();
+        if (text.startsWith("/*")) {
+            return Comment.makeMultiLineComment(sline + lineDelta, scol, eline + lineDelta, ecol, text);
+        }
+        return Comment.makeSingleLineComment(sline + lineDelta, scol, eline + lineDelta, ecol, text);
+    }
+
+    /**
+     * Compares a line and zero-based column to the position of a token.
+     */
+    private static int compare(final int line, final int column, final Token token) {
+        int result = Integer.compare(line, token.getLine());
+        if (result == 0) {
+            result = Integer.compare(column, token.getCharPositionInLine());
+        }
+        return result;
+    }
+
+    private static int count(final char c, final String text, final int from, final int to) {
+        int count = 0;
+        for (int i = from; i < to; i += 1) {
+            if (text.charAt(i) == c) count += 1;
+        }
+        return count;
+    }
+
+    private static int columnOf(final String text, final int offset) {
+        return offset - (text.lastIndexOf('\n', offset - 1) + 1);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.groovy.parser.antlr4.internal.atnmanager;
+
+import groovyjarjarantlr4.v4.runtime.atn.ATN;
+// GRECLIPSE add
+import groovyjarjarantlr4.v4.runtime.dfa.DFA;
+// GRECLIPSE end
+import org.apache.groovy.parser.antlr4.GroovyLangParser;
+
+// GRECLIPSE add
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+// GRECLIPSE end
+
+/**
+ * Manage ATN for parser to avoid memory leak
+ */
+public class ParserAtnManager extends AtnManager {
+    private final AtnWrapper parserAtnWrapper = new AtnManager.AtnWrapper(GroovyLangParser._ATN);
+    public static final ParserAtnManager INSTANCE = new ParserAtnManager();
+
+    @Override
+    public ATN getATN() {
+        return parserAtnWrapper.checkAndClear();
+    }
+
+    @Override
+    protected boolean shouldClearDfaCache() {
+        /* GRECLIPSE edit -- keep the shared DFA warm until it outgrows its cap
+        return true;
+        */
+        // called every groovy.antlr4.cache.threshold parses, so counting the states stays cheap
+        return DFA_STATE_LIMIT <= 0 || getDfaStateCount() > DFA_STATE_LIMIT;
+        // GRECLIPSE end
+    }
+
+    private ParserAtnManager() {}
+
+    // GRECLIPSE add
+    private static final int DFA_STATE_LIMIT = Integer.getInteger("greclipse.antlr4.dfa.limit", 50000);
+
+    private static final int FALLBACK_SOURCE_LIMIT = 1000;
+
+    private final Map<String, LongAdder> llFallbacks = new ConcurrentHashMap<>();
+
+    /**
+     * @return number of DFA states cached for the parser by all parses so far
+     */
+    public int getDfaStateCount() {
+        int count = 0;
+        for (DFA dfa : GroovyLangParser._ATN.decisionToDFA) {
+            count += dfa.states.size();
+        }
+        return count;
+    }
+
+    /**
+     * Discards the cached DFA states of the parser and the fallback counts.
+     */
+    public void clear() {
+        clearDFA(GroovyLangParser._ATN);
+        llFallbacks.clear();
+    }
+
+    /**
+     * Records that parsing the named source in SLL mode failed and it was
+     * parsed again in LL mode.  Sources with syntax errors always fall back.
+     * The counts are reset once {@value #FALLBACK_SOURCE_LIMIT} sources have
+     * been recorded.
+     */
+    public void recordFallback(String sourceName) {
+        String key = String.valueOf(sourceName);
+        if (llFallbacks.size() >= FALLBACK_SOURCE_LIMIT && !llFallbacks.containsKey(key)) {
+            llFallbacks.clear();
+        }
+        llFallbacks.computeIfAbsent(key, x -> new LongAdder()).increment();
+    }
+
+    /**
+     * @return number of LL fallbacks for each source name since the last reset
+     */
+    public Map<String, Long> getFallbackCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        llFallbacks.forEach((name, count) -> counts.put(name, count.sum()));
+        return Collections.unmodifiableMap(counts);
+    }
+    // GRECLIPSE end
+}
@@ -46,6 +46,7 @@ import org.codehaus.groovy.control.io.InputStreamReaderSource;
 import org.codehaus.groovy.control.io.ReaderSource;
 import org.codehaus.groovy.control.messages.ExceptionMessage;
 import org.codehaus.groovy.control.messages.SimpleMessage;
+import org.codehaus.groovy.eclipse.PhaseProfiler;
 import org.codehaus.groovy.syntax.RuntimeParserException;
 import org.codehaus.groovy.syntax.SyntaxException;
 import org.codehaus.groovy.tools.GroovyClass;
@@ -61,7 +62,9 @@ import java.net.URL;
 import java.security.CodeSource;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -97,6 +100,9 @@ public class CompilationUnit extends ProcessingUnit {
 
     /** The classes generated during classgen. */
     private List<GroovyClass> generatedClasses = new ArrayList<>();
+    // GRECLIPSE add
+    private final Map<SourceUnit, List<GroovyClass>> generatedClassesBySource = new HashMap<>();
+    // GRECLIPSE end
 
     private Deque<PhaseOperation>[] phaseOperations;
     private Deque<PhaseOperation>[] newPhaseOperations;
@@ -408,6 +414,15 @@ public class CompilationUnit extends ProcessingUnit {
         return generatedClasses;
     }
 
+    // GRECLIPSE add
+    /**
+     * Get the GroovyClasses generated by compile() for the given source.
+     */
+    public List<GroovyClass> getClasses(SourceUnit source) {
+        return generatedClassesBySource.getOrDefault(source, Collections.emptyList());
+    }
+    // GRECLIPSE end
+
     /**
      * Convenience routine to get the first ClassNode, for
      * when you are sure there is only one.
@@ -792,6 +807,9 @@ public class CompilationUnit extends ProcessingUnit {
 
             byte[] bytes = ((ClassWriter) classVisitor).toByteArray();
             getClasses().add(new GroovyClass(classNode.getName(), bytes/*GRECLIPSE add*/, classNode, source/*GRECLIPSE end*/));
+            // GRECLIPSE add
+            generatedClassesBySource.computeIfAbsent(source, x -> new ArrayList<>()).add(getClasses().get(getClasses().size() - 1));
+            // GRECLIPSE end
 
             //
             // Handle any callback that's been set
@@ -903,8 +921,12 @@ public class CompilationUnit extends ProcessingUnit {
                 SourceUnit source = unit.sources.get(name);
                 if (source.phase < unit.phase || (source.phase == unit.phase && !source.phaseComplete)) {
                     try {
+                        // GRECLIPSE add
+                        long[] mark = (unit.profiler != null ? unit.profiler.start() : null);
+                        // GRECLIPSE end
                         this.call(source);
                         // GRECLIPSE add
+                        if (mark != null) unit.profiler.end(name, unit.getPhaseDescription(), mark);
                         if (unit.phase == Phases.CONVERSION && unit.phaseOperations[unit.phase].getLast() == this) {
                             if (unit.progressListener != null) unit.progressListener.parseComplete(unit.phase, name);
                         }
@@ -949,7 +971,13 @@ public class CompilationUnit extends ProcessingUnit {
                             it.next();
                             offset += 1;
                         }
+                        // GRECLIPSE add
+                        long[] mark = (unit.profiler != null ? unit.profiler.start() : null);
+                        // GRECLIPSE end
                         this.call(context, new GeneratorContext(unit.getAST(), offset), classNode);
+                        // GRECLIPSE add
+                        if (mark != null) unit.profiler.end(context != null ? context.getName() : classNode.getName(), unit.getPhaseDescription(), mark);
+                        // GRECLIPSE end
                     }
                 } catch (CompilationFailedException e) {
                     // fall through
@@ -1146,6 +1174,17 @@ public class CompilationUnit extends ProcessingUnit {
         this.progressListener = progressListener;
     }
 
+    /**
+     * @return profiler that records phase and transform costs or {@code null}
+     */
+    public PhaseProfiler getProfiler() {
+        return this.profiler;
+    }
+
+    public void setProfiler(final PhaseProfiler profiler) {
+        this.profiler = profiler;
+    }
+
     public ResolveVisitor getResolveVisitor() {
         return this.resolveVisitor;
     }
@@ -1173,10 +1212,12 @@ public class CompilationUnit extends ProcessingUnit {
      */
     public void tweak(final boolean isReconcile) {
         verifier.inlineStaticFieldInitializersIntoClinit = !isReconcile;
+        getConfiguration().getOptimizationOptions().put(org.apache.groovy.parser.antlr4.AstBuilder.REPARSE, isReconcile);
     }
 
     public final boolean allowTransforms;
     private ProgressListener progressListener;
+    private PhaseProfiler profiler;
     // GRECLIPSE end
 
     //--------------------------------------------------------------------------
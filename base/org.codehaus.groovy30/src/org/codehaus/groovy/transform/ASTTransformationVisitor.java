@@ -43,6 +43,7 @@ import org.codehaus.groovy.control.SourceUnit;
 import org.codehaus.groovy.control.messages.SimpleMessage;
 import org.codehaus.groovy.control.messages.WarningMessage;
 import org.codehaus.groovy.eclipse.GroovyLogManager;
+import org.codehaus.groovy.eclipse.PhaseProfiler;
 import org.codehaus.groovy.eclipse.TraceCategory;
 import org.codehaus.groovy.runtime.DefaultGroovyMethods;
 import org.codehaus.groovy.syntax.SyntaxException;
@@ -175,6 +176,8 @@ public final class ASTTransformationVisitor extends ClassCodeVisitorSupport {
                     // GRECLIPSE add
                     try {
                         long t0 = System.nanoTime();
+                        PhaseProfiler profiler = context.getCompilationUnit().getProfiler();
+                        long[] mark = (profiler != null ? profiler.start() : null);
                         boolean okToSet = (source != null && source.getErrorCollector() != null);
                         try {
                             if (okToSet) {
@@ -191,6 +194,9 @@ public final class ASTTransformationVisitor extends ClassCodeVisitorSupport {
                                 source.getErrorCollector().transformActive = false;
                             }
                         }
+                        if (mark != null) {
+                            profiler.end(source.getName(), "transform " + snt.getClass().getName(), mark);
+                        }
                         if (GroovyLogManager.manager.hasLoggers()) {
                             long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
                             String sourceName = DefaultGroovyMethods.last(source.getName().split("/|\\\\"));
@@ -407,6 +413,8 @@ public final class ASTTransformationVisitor extends ClassCodeVisitorSupport {
                         if (isBuggered[0]) return;
                         try {
                             long t0 = System.nanoTime();
+                            PhaseProfiler profiler = compilationUnit.getProfiler();
+                            long[] mark = (profiler != null ? profiler.start() : null);
                             boolean okToSet = (source != null && source.getErrorCollector() != null);
                             try {
                                 if (okToSet) {
@@ -420,6 +428,9 @@ public final class ASTTransformationVisitor extends ClassCodeVisitorSupport {
                                     source.getErrorCollector().transformActive = false;
                                 }
                             }
+                            if (mark != null) {
+                                profiler.end(source.getName(), "transform " + instance.getClass().getName(), mark);
+                            }
                             if (GroovyLogManager.manager.hasLoggers()) {
                                 long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
                                 String sourceName = DefaultGroovyMethods.last(source.getName().split("/|\\\\"));
@@ -27,6 +27,7 @@ import org.codehaus.groovy.runtime.m12n.MetaInfExtensionModule;
 import org.codehaus.groovy.runtime.memoize.EvictableCache;
 import org.codehaus.groovy.runtime.memoize.StampedCommonCache;
 
+import java.lang.ref.SoftReference;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -36,6 +37,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -51,6 +53,88 @@ public abstract class AbstractExtensionMethodCache {
         return cache.getAndPut(loader, this::getMethodsFromClassLoader);
     }
 
+    // GRECLIPSE add
+    /**
+     * Extension methods of the classes visible to the class loaders with the
+     * same {@link ExtensionModuleCatalogue extension module fingerprint}.
+     */
+    private static final class SharedMethods {
+        final Set<Class> instanceExtClasses, staticExtClasses;
+        final Map<String, List<MethodNode>> methods;
+
+        SharedMethods(Set<Class> instanceExtClasses, Set<Class> staticExtClasses, Map<String, List<MethodNode>> methods) {
+            this.instanceExtClasses = instanceExtClasses;
+            this.staticExtClasses = staticExtClasses;
+            this.methods = methods;
+        }
+    }
+
+    private final Map<String, SoftReference<SharedMethods>> sharedMethods = new ConcurrentHashMap<>();
+
+    /**
+     * The methods of an extension class are scanned once per class, not once
+     * per class loader; DGM and the other runtime classes are shared by every
+     * class loader.
+     */
+    private final ClassValue<List<MethodNode>> instanceMethods = new ClassValue<List<MethodNode>>() {
+        @Override
+        protected List<MethodNode> computeValue(Class<?> type) {
+            return scan(type, false);
+        }
+    };
+    private final ClassValue<List<MethodNode>> staticMethods = new ClassValue<List<MethodNode>>() {
+        @Override
+        protected List<MethodNode> computeValue(Class<?> type) {
+            return scan(type, true);
+        }
+    };
+
+    private Map<String, List<MethodNode>> getMethodsFromClassLoader(ClassLoader classLoader) {
+        Set<Class> instanceExtClasses = new LinkedHashSet<>();
+        Set<Class> staticExtClasses = new LinkedHashSet<>();
+        String fingerprint = ExtensionModuleCatalogue.getExtensionClasses(classLoader, instanceExtClasses, staticExtClasses);
+
+        addAdditionalClassesToScan(instanceExtClasses, staticExtClasses);
+
+        // class loaders with the same fingerprint may still load their own copies of the extension classes
+        SoftReference<SharedMethods> reference = sharedMethods.get(fingerprint);
+        SharedMethods shared = (reference != null ? reference.get() : null);
+        if (shared != null && shared.instanceExtClasses.equals(instanceExtClasses) && shared.staticExtClasses.equals(staticExtClasses)) {
+            return shared.methods;
+        }
+
+        Map<String, List<MethodNode>> methods = new HashMap<>();
+        for (Class c : staticExtClasses) {
+            accumulate(methods, staticMethods.get(c));
+        }
+        for (Class c : instanceExtClasses) {
+            accumulate(methods, instanceMethods.get(c));
+        }
+        methods = makeMethodsUnmodifiable(methods);
+
+        sharedMethods.put(fingerprint, new SoftReference<>(new SharedMethods(instanceExtClasses, staticExtClasses, methods)));
+        return methods;
+    }
+
+    private List<MethodNode> scan(Class dgmLikeClass, boolean isStatic) {
+        Map<String, List<MethodNode>> accumulator = new HashMap<>();
+        scan(accumulator, Collections.singleton(dgmLikeClass), isStatic);
+
+        // the nodes are grouped again when the methods of all classes are accumulated
+        List<MethodNode> methods = new ArrayList<>();
+        accumulator.values().forEach(methods::addAll);
+        return Collections.unmodifiableList(methods);
+    }
+
+    private void accumulate(Map<String, List<MethodNode>> accumulator, List<MethodNode> extensionMethods) {
+        Function<MethodNode, String> methodMapper = getMethodMapper();
+        for (MethodNode node : extensionMethods) {
+            String key = methodMapper.apply(((ExtensionMethodNode) node).getExtensionMethodNode());
+            accumulator.computeIfAbsent(key, k -> new ArrayList<>()).add(node);
+        }
+    }
+
+    /* GRECLIPSE edit
     private Map<String, List<MethodNode>> getMethodsFromClassLoader(ClassLoader classLoader) {
         final List<ExtensionModule> modules = new LinkedList<>();
         ExtensionModuleScanner scanner = new ExtensionModuleScanner(
@@ -72,6 +156,8 @@ public abstract class AbstractExtensionMethodCache {
 
         return makeMethodsUnmodifiable(getMethods(modules));
     }
+    */
+    // GRECLIPSE end
 
     /**
      * Returns a map which contains, as the key, the name of a class. The value
@@ -81,6 +167,7 @@ public abstract class AbstractExtensionMethodCache {
      * @param modules extension modules
      * @return
      */
+    /* GRECLIPSE edit -- replaced by ExtensionModuleCatalogue
     private Map<String, List<MethodNode>> getMethods(List<ExtensionModule> modules) {
         Set<Class> instanceExtClasses = new LinkedHashSet<>();
         Set<Class> staticExtClasses = new LinkedHashSet<>();
@@ -98,6 +185,8 @@ public abstract class AbstractExtensionMethodCache {
 
         return methods;
     }
+    */
+    // GRECLIPSE end
 
     private Map<String, List<MethodNode>> makeMethodsUnmodifiable(Map<String, List<MethodNode>> methods) {
         methods.replaceAll((k, v) -> Collections.unmodifiableList(v));
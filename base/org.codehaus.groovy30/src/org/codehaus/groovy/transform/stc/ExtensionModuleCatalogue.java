@@ -0,0 +1,292 @@
+/*
+ * Copyright 2009-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.transform.stc;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.codehaus.groovy.eclipse.GroovyLogManager;
+import org.codehaus.groovy.eclipse.TraceCategory;
+import org.codehaus.groovy.runtime.m12n.ExtensionModule;
+import org.codehaus.groovy.runtime.m12n.ExtensionModuleScanner;
+import org.codehaus.groovy.runtime.m12n.MetaInfExtensionModule;
+
+/**
+ * Catalogue of the extension classes declared by the extension module
+ * descriptors that a class loader can see.  Entries are keyed by a fingerprint
+ * of the descriptors, so class loaders over the same classpath share an entry
+ * and only the first one reads the descriptors and creates the modules.
+ * <p>
+ * The fingerprint lists the URL of each descriptor with the length and last
+ * modified time of the file or jar that contains it.  If
+ * {@code -Dgreclipse.extensionModuleCatalogue} names a file, the entries whose
+ * descriptors are all in files or jars are saved there and read by the next
+ * session.
+ */
+final class ExtensionModuleCatalogue {
+
+    private static final int VERSION = 1;
+
+    private static final int MAX_ENTRIES = 100;
+
+    private static final String CATALOGUE_FILE = System.getProperty("greclipse.extensionModuleCatalogue");
+
+    private static final class Entry {
+        final List<String> instanceClassNames, staticClassNames;
+        final boolean persistent;
+
+        Entry(List<String> instanceClassNames, List<String> staticClassNames, boolean persistent) {
+            this.instanceClassNames = instanceClassNames;
+            this.staticClassNames = staticClassNames;
+            this.persistent = persistent;
+        }
+    }
+
+    /** Fingerprint to entry, least recently used first. */
+    private static final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    static {
+        load();
+    }
+
+    private ExtensionModuleCatalogue() {
+    }
+
+    /**
+     * Adds the extension classes declared by the extension modules visible to
+     * {@code loader} to {@code instanceExtClasses} and {@code staticExtClasses}.
+     *
+     * @return fingerprint of the extension module descriptors visible to {@code loader}
+     */
+    static String getExtensionClasses(final ClassLoader loader, final Set<Class> instanceExtClasses, final Set<Class> staticExtClasses) {
+        boolean[] persistent = {true};
+        String fingerprint = fingerprint(loader, persistent);
+
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(fingerprint);
+        }
+        if (entry != null && loadClasses(entry.instanceClassNames, loader, instanceExtClasses) &&
+                                loadClasses(entry.staticClassNames, loader, staticExtClasses)) {
+            return fingerprint;
+        }
+        instanceExtClasses.clear();
+        staticExtClasses.clear();
+
+        for (MetaInfExtensionModule module : scanModules(loader)) {
+            instanceExtClasses.addAll(module.getInstanceMethodsExtensionClasses());
+            staticExtClasses.addAll(module.getStaticMethodsExtensionClasses());
+        }
+        entry = new Entry(classNames(instanceExtClasses), classNames(staticExtClasses), persistent[0]);
+        synchronized (entries) {
+            entries.put(fingerprint, entry);
+        }
+        if (entry.persistent) {
+            save();
+        }
+        return fingerprint;
+    }
+
+    private static List<MetaInfExtensionModule> scanModules(final ClassLoader loader) {
+        List<MetaInfExtensionModule> modules = new ArrayList<>();
+        ExtensionModuleScanner scanner = new ExtensionModuleScanner(
+                module -> {
+                    if (!(module instanceof MetaInfExtensionModule)) return;
+
+                    boolean skip = false;
+                    for (ExtensionModule extensionModule : modules) {
+                        if (extensionModule.getName().equals(module.getName())) {
+                            skip = true;
+                            break;
+                        }
+                    }
+                    if (!skip) modules.add((MetaInfExtensionModule) module);
+                },
+                loader
+        );
+        scanner.scanClasspathModules();
+        return modules;
+    }
+
+    private static boolean loadClasses(final List<String> classNames, final ClassLoader loader, final Set<Class> classes) {
+        for (String className : classNames) {
+            try {
+                classes.add(loader.loadClass(className));
+            } catch (ClassNotFoundException | LinkageError e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> classNames(final Collection<Class> classes) {
+        List<String> names = new ArrayList<>(classes.size());
+        for (Class c : classes) {
+            names.add(c.getName());
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    //--------------------------------------------------------------------------
+
+    /**
+     * @param persistent set to {@code false} if a descriptor is not in a file or jar
+     */
+    private static String fingerprint(final ClassLoader loader, final boolean[] persistent) {
+        StringBuilder fingerprint = new StringBuilder();
+        for (String descriptor : new String[] {ExtensionModuleScanner.MODULE_META_INF_FILE, ExtensionModuleScanner.LEGACY_MODULE_META_INF_FILE}) {
+            try {
+                Enumeration<URL> urls = loader.getResources(descriptor);
+                while (urls.hasMoreElements()) {
+                    URL url = urls.nextElement();
+                    fingerprint.append(url.toExternalForm());
+                    File container = getContainer(url);
+                    if (container != null) {
+                        fingerprint.append('|').append(container.length()).append('|').append(container.lastModified());
+                    } else {
+                        persistent[0] = false;
+                    }
+                    fingerprint.append('\n');
+                }
+            } catch (IOException e) {
+                // the scanner skips descriptors it cannot list as well
+                persistent[0] = false;
+            }
+            fingerprint.append('\n');
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * @return the file or jar file that contains the resource at {@code url} or {@code null}
+     */
+    private static File getContainer(final URL url) {
+        try {
+            String spec;
+            switch (url.getProtocol()) {
+            case "file":
+                spec = url.toExternalForm();
+                break;
+            case "jar":
+                spec = url.getPath();
+                int bang = spec.indexOf("!/");
+                if (bang < 0 || !spec.startsWith("file:")) {
+                    return null;
+                }
+                spec = spec.substring(0, bang);
+                break;
+            default:
+                return null;
+            }
+            File file = new File(new URI(spec));
+            return (file.exists() ? file : null);
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    //--------------------------------------------------------------------------
+
+    private static void load() {
+        if (CATALOGUE_FILE == null) {
+            return;
+        }
+        File file = new File(CATALOGUE_FILE);
+        if (!file.isFile()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != VERSION) {
+                return;
+            }
+            for (int i = 0, n = in.readInt(); i < n; i += 1) {
+                String fingerprint = in.readUTF();
+                List<String> instanceClassNames = readNames(in);
+                List<String> staticClassNames = readNames(in);
+                entries.put(fingerprint, new Entry(instanceClassNames, staticClassNames, true));
+            }
+        } catch (IOException | RuntimeException e) {
+            entries.clear();
+            GroovyLogManager.manager.logException(TraceCategory.COMPILER, e);
+        }
+    }
+
+    private static synchronized void save() {
+        if (CATALOGUE_FILE == null) {
+            return;
+        }
+        List<Map.Entry<String, Entry>> snapshot = new ArrayList<>();
+        synchronized (entries) {
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                // DataOutput limits a string to 64K bytes
+                if (entry.getValue().persistent && entry.getKey().length() < 0x4000) {
+                    snapshot.add(entry);
+                }
+            }
+        }
+        File file = new File(CATALOGUE_FILE);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(VERSION);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, Entry> entry : snapshot) {
+                out.writeUTF(entry.getKey());
+                writeNames(out, entry.getValue().instanceClassNames);
+                writeNames(out, entry.getValue().staticClassNames);
+            }
+        } catch (IOException e) {
+            file.delete();
+            GroovyLogManager.manager.logException(TraceCategory.COMPILER, e);
+        }
+    }
+
+    private static List<String> readNames(final DataInputStream in) throws IOException {
+        int n = in.readInt();
+        List<String> names = new ArrayList<>(n);
+        for (int i = 0; i < n; i += 1) {
+            names.add(in.readUTF());
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    private static void writeNames(final DataOutputStream out, final List<String> names) throws IOException {
+        out.writeInt(names.size());
+        for (String name : names) {
+            out.writeUTF(name);
+        }
+    }
+}
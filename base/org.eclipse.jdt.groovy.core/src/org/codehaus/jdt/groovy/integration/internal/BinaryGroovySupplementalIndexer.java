@@ -17,36 +17,88 @@ package org.codehaus.jdt.groovy.integration.internal;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.codehaus.jdt.groovy.integration.ISupplementalIndexer;
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
 
+/**
+ * Adds the identifiers (and dotted names split into identifiers) found in the
+ * UTF8 constants of a Groovy class file to the index as name and method refs.
+ * <p>
+ * The constant pool is scanned in place: descriptors, signatures and other
+ * non-identifier constants are rejected on their first invalid byte, names
+ * are deduplicated per class file before any {@code char[]} is created, and
+ * the created names are shared across class files through a small cache.
+ */
 class BinaryGroovySupplementalIndexer implements ISupplementalIndexer {
 
     @Override
     public List<char[]> extractNamedReferences(final byte[] contents, final ClassFileReader reader) {
         int[] constantPoolOffsets = reader.getConstantPoolOffsets();
         int constantPoolCount = constantPoolOffsets.length;
-        List<char[]> refs = new ArrayList<>();
+        NameSet refs = new NameSet(contents);
         for (int i = 1; i < constantPoolCount; i += 1) {
-            int tag = reader.u1At(constantPoolOffsets[i]);
-            switch (tag) {
-            case ClassFileConstants.Utf8Tag:
-                char[] strConst = extractStringConstant(constantPoolOffsets, reader, i);
-                if (isValidId(strConst)) {
-                    char[][] splits = CharOperation.splitOn('.', strConst);
-                    for (char[] split : splits) {
-                        refs.add(split);
+            int offset = constantPoolOffsets[i];
+            if (offset > 0 && (contents[offset] & 0xFF) == ClassFileConstants.Utf8Tag) {
+                int length = ((contents[offset + 1] & 0xFF) << 8) | (contents[offset + 2] & 0xFF);
+                int start = offset + 3; // +1 for the tag type and +2 for the length
+                switch (scan(contents, start, length)) {
+                case ASCII:
+                    for (int end = start + length, from = start, to; from < end; from = to + 1) {
+                        to = from;
+                        while (to < end && contents[to] != '.') {
+                            to += 1;
+                        }
+                        refs.add(from, to);
+                    }
+                    break;
+                case NON_ASCII:
+                    char[] strConst = reader.utf8At(start, length);
+                    if (isValidId(strConst)) {
+                        for (char[] split : CharOperation.splitOn('.', strConst)) {
+                            refs.add(split);
+                        }
                     }
+                    break;
+                }
+            }
+        }
+        return refs.toList();
+    }
+
+    private static final int INVALID = 0, ASCII = 1, NON_ASCII = 2;
+
+    /**
+     * Checks the modified UTF-8 bytes of a constant without decoding them.
+     * Descriptors, signatures, internal names and most literals are rejected
+     * by their first or second byte.
+     *
+     * @return {@link #ASCII} for a valid dotted name of ASCII characters,
+     *     {@link #NON_ASCII} if the constant must be decoded to be checked
+     *     and {@link #INVALID} otherwise
+     */
+    private static int scan(final byte[] bytes, final int start, final int length) {
+        if (length == 0) {
+            return INVALID;
+        }
+        for (int i = start, end = start + length; i < end; i += 1) {
+            int b = bytes[i];
+            if (b < 0) {
+                return NON_ASCII;
+            }
+            if (!(b == '.' || b == '_' || (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z'))) {
+                if (i == start || b == '$' || !Character.isJavaIdentifierPart(b)) {
+                    return INVALID;
                 }
             }
         }
-        return refs;
+        return ASCII;
     }
 
-    private boolean isValidId(final char[] strConst) {
+    private static boolean isValidId(final char[] strConst) {
         if (strConst == null || strConst.length == 0) {
             return false;
         }
@@ -61,9 +113,163 @@ class BinaryGroovySupplementalIndexer implements ISupplementalIndexer {
         return true;
     }
 
-    private char[] extractStringConstant(final int[] constantPoolOffsets, final ClassFileReader reader, final int index) {
-        int strlen = reader.u2At(constantPoolOffsets[index] + 1); // / +1 for the tag type
-        int strstart = constantPoolOffsets[index] + 3; // +1 for the tag type and +2 for the strlen
-        return reader.utf8At(strstart, strlen);
+    //--------------------------------------------------------------------------
+
+    /**
+     * Open-addressed set of the names of one class file. ASCII names are held
+     * as ranges of the class file bytes until {@link #toList()} is called.
+     */
+    private static final class NameSet {
+        private final byte[] bytes;
+        private int[] starts = new int[64], ends = new int[64];
+        private char[][] decoded = new char[64][];
+        private int size;
+
+        NameSet(final byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        void add(final int start, final int end) {
+            if (start == end) {
+                return;
+            }
+            int hash = hash(bytes, start, end), mask = starts.length - 1;
+            for (int i = hash & mask;; i = (i + 1) & mask) {
+                if (ends[i] == 0 && decoded[i] == null) {
+                    starts[i] = start;
+                    ends[i] = end;
+                    grow();
+                    return;
+                }
+                if (matches(i, start, end)) {
+                    return;
+                }
+            }
+        }
+
+        void add(final char[] name) {
+            if (name.length == 0) {
+                return;
+            }
+            int hash = hash(name), mask = starts.length - 1;
+            for (int i = hash & mask;; i = (i + 1) & mask) {
+                if (ends[i] == 0 && decoded[i] == null) {
+                    decoded[i] = name;
+                    grow();
+                    return;
+                }
+                if (CharOperation.equals(name, name(i))) {
+                    return;
+                }
+            }
+        }
+
+        List<char[]> toList() {
+            List<char[]> list = new ArrayList<>(size);
+            for (int i = 0; i < starts.length; i += 1) {
+                if (ends[i] != 0 || decoded[i] != null) {
+                    list.add(name(i));
+                }
+            }
+            return list;
+        }
+
+        private boolean matches(final int i, final int start, final int end) {
+            if (decoded[i] != null) {
+                return decoded[i].length == end - start && sameChars(decoded[i], bytes, start, end);
+            }
+            int n = end - start;
+            if (ends[i] - starts[i] != n) {
+                return false;
+            }
+            for (int j = 0; j < n; j += 1) {
+                if (bytes[starts[i] + j] != bytes[start + j]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private char[] name(final int i) {
+            if (decoded[i] == null) {
+                decoded[i] = intern(bytes, starts[i], ends[i]);
+            }
+            return decoded[i];
+        }
+
+        private void grow() {
+            if ((size += 1) * 2 > starts.length) {
+                int[] oldStarts = starts, oldEnds = ends;
+                char[][] oldDecoded = decoded;
+                int n = oldStarts.length * 2, mask = n - 1;
+                starts = new int[n];
+                ends = new int[n];
+                decoded = new char[n][];
+                for (int j = 0; j < oldStarts.length; j += 1) {
+                    if (oldEnds[j] != 0 || oldDecoded[j] != null) {
+                        int hash = (oldEnds[j] != 0 ? hash(bytes, oldStarts[j], oldEnds[j]) : hash(oldDecoded[j]));
+                        int i = hash & mask;
+                        while (ends[i] != 0 || decoded[i] != null) {
+                            i = (i + 1) & mask;
+                        }
+                        starts[i] = oldStarts[j];
+                        ends[i] = oldEnds[j];
+                        decoded[i] = oldDecoded[j];
+                    }
+                }
+            }
+        }
+    }
+
+    //--------------------------------------------------------------------------
+
+    private static final int CACHE_SIZE = 4096; // must be a power of two
+
+    /**
+     * Direct-mapped cache of the names created from ASCII bytes. Names such as
+     * "call", "getMetaClass" or "java" recur in every Groovy class file; a hit
+     * avoids allocating another copy that the index would retain.
+     */
+    private static final AtomicReferenceArray<char[]> NAME_CACHE = new AtomicReferenceArray<>(CACHE_SIZE);
+
+    private static char[] intern(final byte[] bytes, final int start, final int end) {
+        int slot = hash(bytes, start, end) & (CACHE_SIZE - 1);
+        char[] name = NAME_CACHE.get(slot);
+        if (name == null || name.length != end - start || !sameChars(name, bytes, start, end)) {
+            name = new char[end - start];
+            for (int i = start; i < end; i += 1) {
+                name[i - start] = (char) bytes[i];
+            }
+            NAME_CACHE.lazySet(slot, name);
+        }
+        return name;
+    }
+
+    private static int hash(final byte[] bytes, final int start, final int end) {
+        int hash = 0;
+        for (int i = start; i < end; i += 1) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash & 0x7FFFFFFF;
+    }
+
+    /**
+     * @return the same value as {@link #hash(byte[],int,int)} for a name of ASCII characters
+     */
+    private static int hash(final char[] chars) {
+        int hash = 0;
+        for (char c : chars) {
+            hash = 31 * hash + c;
+        }
+        return hash & 0x7FFFFFFF;
+    }
+
+    private static boolean sameChars(final char[] chars, final byte[] bytes, final int start, final int end) {
+        for (int i = start; i < end; i += 1) {
+            if (chars[i - start] != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 }
@@ -18,6 +18,8 @@ package org.codehaus.jdt.groovy.integration.internal;
 import java.io.File;
 import java.net.URI;
 import java.net.URL;
+import java.nio.file.Files;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -26,10 +28,15 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import groovy.lang.Binding;
 import groovy.lang.GroovyClassLoader;
 import groovy.lang.GroovyShell;
+import groovy.lang.Script;
 
 import org.apache.xbean.classloader.MultiParentClassLoader;
 import org.codehaus.groovy.ast.ImportNode;
@@ -41,6 +48,7 @@ import org.codehaus.groovy.control.ResolveVisitor;
 import org.codehaus.groovy.control.SourceUnit;
 import org.codehaus.groovy.control.customizers.ImportCustomizer;
 import org.codehaus.groovy.control.io.ReaderSource;
+import org.codehaus.groovy.runtime.InvokerHelper;
 import org.codehaus.jdt.groovy.control.CharArrayReaderSource;
 import org.codehaus.jdt.groovy.integration.EventHandler;
 import org.codehaus.jdt.groovy.integration.ISupplementalIndexer;
@@ -56,8 +64,11 @@ import org.codehaus.jdt.groovy.model.GroovyNature;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.core.IClasspathEntry;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.ISourceRange;
@@ -71,7 +82,9 @@ import org.eclipse.jdt.core.search.SearchRequestor;
 import org.eclipse.jdt.groovy.core.util.ContentTypeUtils;
 import org.eclipse.jdt.groovy.core.util.GroovyUtils;
 import org.eclipse.jdt.groovy.core.util.ReflectionUtils;
+import org.eclipse.jdt.groovy.search.BufferingSearchRequestor;
 import org.eclipse.jdt.groovy.search.ITypeRequestor;
+import org.eclipse.jdt.groovy.search.ReferenceIndex;
 import org.eclipse.jdt.groovy.search.TypeInferencingVisitorFactory;
 import org.eclipse.jdt.groovy.search.TypeInferencingVisitorWithRequestor;
 import org.eclipse.jdt.groovy.search.TypeRequestorFactory;
@@ -248,14 +261,13 @@ public class GroovyLanguageSupport implements LanguageSupport {
         if (compilerOptions.buildGroovyFiles > 1 && compilerOptions.groovyCompilerConfigScript != null) {
             Binding binding = new Binding();
             binding.setVariable("configuration", config);
-            GroovyShell shell = new GroovyShell(binding, CONFIG_SCRIPT_CONFIG);
             try {
                 File configScript = new File(compilerOptions.groovyCompilerConfigScript);
                 if (!configScript.isAbsolute() && compilerOptions.groovyProjectName != null) {
                     IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(compilerOptions.groovyProjectName);
                     configScript = new File(project.getLocation().append(configScript.getPath()).toOSString());
                 }
-                shell.evaluate(configScript);
+                InvokerHelper.createScript(getConfigScriptClass(configScript, compilerOptions.groovyProjectName), binding).run();
             } catch (Exception | LinkageError e) {
                 int severity = ProblemSeverities.Error;
                 CompilationResult compilationResult = null;
@@ -281,6 +293,59 @@ public class GroovyLanguageSupport implements LanguageSupport {
         return config;
     }
 
+    /**
+     * Compiled config script of a project.
+     */
+    private static final class ConfigScript {
+        final String path;
+        final byte[] digest;
+        final IClasspathEntry[] classpath;
+        final Class<?> type;
+
+        ConfigScript(String path, byte[] digest, IClasspathEntry[] classpath, Class<?> type) {
+            this.path = path;
+            this.digest = digest;
+            this.classpath = classpath;
+            this.type = type;
+        }
+
+        boolean matches(String path, byte[] digest, IClasspathEntry[] classpath) {
+            return (this.path.equals(path) && Arrays.equals(this.digest, digest) && Arrays.equals(this.classpath, classpath));
+        }
+    }
+
+    /**
+     * Compiled config scripts by project name. The configuration is built for
+     * nearly every reconcile, so each script is compiled once and re-run until
+     * its contents or the project classpath change or the project is closed.
+     */
+    private static final Map<String, ConfigScript> CONFIG_SCRIPT_CACHE = new ConcurrentHashMap<>();
+
+    public static void clearConfigScriptCache(final String projectName) {
+        CONFIG_SCRIPT_CACHE.remove(projectName);
+    }
+
+    private static Class<?> getConfigScriptClass(final File configScript, final String projectName) throws Exception {
+        byte[] contents = Files.readAllBytes(configScript.toPath());
+        String scriptText = new String(contents, CONFIG_SCRIPT_CONFIG.getSourceEncoding());
+        if (projectName == null) {
+            return new GroovyShell(CONFIG_SCRIPT_CONFIG).parse(scriptText, configScript.getName()).getClass();
+        }
+
+        String path = configScript.getAbsolutePath();
+        byte[] digest = MessageDigest.getInstance("SHA-1").digest(contents);
+        IJavaProject javaProject = JavaCore.create(ResourcesPlugin.getWorkspace().getRoot().getProject(projectName));
+        IClasspathEntry[] classpath = (javaProject.exists() ? javaProject.getResolvedClasspath(true) : new IClasspathEntry[0]);
+
+        ConfigScript entry = CONFIG_SCRIPT_CACHE.get(projectName);
+        if (entry == null || !entry.matches(path, digest, classpath)) {
+            Script script = new GroovyShell(CONFIG_SCRIPT_CONFIG).parse(scriptText, configScript.getName());
+            entry = new ConfigScript(path, digest, classpath, script.getClass());
+            CONFIG_SCRIPT_CACHE.put(projectName, entry);
+        }
+        return entry.type;
+    }
+
     public static GroovyClassLoader newGroovyClassLoader(final IJavaProject project, final ClassLoader parentLoader) {
         Map<String, String> options = project.getOptions(true);
         options.put(CompilerOptions.OPTIONG_GroovyProjectName, project.getElementName());
@@ -318,14 +383,83 @@ public class GroovyLanguageSupport implements LanguageSupport {
         if (possibleMatch.openable != null && possibleMatch.openable.exists()) {
             ITypeRequestor typeRequestor = new TypeRequestorFactory().createRequestor(possibleMatch, pattern, requestor);
             if (typeRequestor != null) {
+                ReferenceIndex.Recorder recorder = null;
+                if (possibleMatch.openable instanceof GroovyCompilationUnit) {
+                    GroovyCompilationUnit unit = (GroovyCompilationUnit) possibleMatch.openable;
+                    if (!ReferenceIndex.getInstance().mayContainMatch(unit, typeRequestor)) {
+                        return true;
+                    }
+                    recorder = ReferenceIndex.getInstance().newRecorder(unit);
+                    if (recorder != null) {
+                        typeRequestor = recorder.forwardTo(typeRequestor);
+                    }
+                }
                 TypeInferencingVisitorWithRequestor visitor = new TypeInferencingVisitorFactory().createVisitor(possibleMatch);
                 visitor.visitCompilationUnit(typeRequestor);
+                if (recorder != null) {
+                    recorder.commit();
+                }
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Number of possible matches searched concurrently by
+     * {@link #maybePerformDelegatedSearch(List, SearchPattern, SearchRequestor, IProgressMonitor)};
+     * the default of 1 searches them one after another on the calling thread.
+     */
+    private static int searchParallelism() {
+        return Math.max(1, Integer.getInteger("greclipse.search.parallelism", 1));
+    }
+
+    private static final class SearchPool {
+        /** Workers shared by all searches; sized by the first parallel search. */
+        static final ForkJoinPool INSTANCE = new ForkJoinPool(searchParallelism());
+    }
+
+    @Override
+    public Set<PossibleMatch> maybePerformDelegatedSearch(final List<PossibleMatch> possibleMatches, final SearchPattern pattern, final SearchRequestor requestor, final IProgressMonitor monitor) {
+        if (searchParallelism() < 2 || possibleMatches.size() < 2) {
+            return LanguageSupport.super.maybePerformDelegatedSearch(possibleMatches, pattern, requestor, monitor);
+        }
+
+        // infer each possible match on the pool and buffer its matches
+        List<ForkJoinTask<BufferingSearchRequestor>> tasks = new ArrayList<>(possibleMatches.size());
+        try {
+            for (PossibleMatch possibleMatch : possibleMatches) {
+                tasks.add(SearchPool.INSTANCE.submit(() -> {
+                    if (monitor != null && monitor.isCanceled()) {
+                        throw new OperationCanceledException();
+                    }
+                    BufferingSearchRequestor buffer = new BufferingSearchRequestor(requestor);
+                    return maybePerformDelegatedSearch(possibleMatch, pattern, buffer) ? buffer : null;
+                }));
+            }
+
+            // report the buffered matches in order of the possible matches
+            Set<PossibleMatch> searched = new HashSet<>();
+            for (int i = 0, n = possibleMatches.size(); i < n; i += 1) {
+                if (monitor != null && monitor.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
+                BufferingSearchRequestor buffer = tasks.get(i).join();
+                if (buffer != null) {
+                    searched.add(possibleMatches.get(i));
+                    try {
+                        buffer.flush();
+                    } catch (CoreException e) {
+                        Util.log(e, "Error reporting search matches inside of " + possibleMatches.get(i).openable.getElementName());
+                    }
+                }
+            }
+            return searched;
+        } finally {
+            tasks.forEach(task -> task.cancel(false));
+        }
+    }
+
     @Override
     public EventHandler getEventHandler() {
         // FIXASC could be une singleton?
@@ -32,6 +32,8 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
 import groovy.lang.GroovyClassLoader;
 
@@ -66,19 +68,37 @@ public final class GroovyClassLoaderFactory {
      * is maintained from project names to the current classpath and associated loader. If the classpath matches the cached version
      * on a call to build a parser then it is reused. If it does not match then a new loader is created and stored (storing it
      * orphans the previously cached one). When either a full build or a clean or project close occurs, we also discard the loader
-     * instances associated with the project.
+     * instances associated with the project. Hits and misses are counted per project, see getCacheStatistics.
      */
-    private static Map<String, Map.Entry<IClasspathEntry[], GroovyClassLoader[]>> projectClassLoaderCache = new ConcurrentHashMap<>();
+    private static Map<String, CacheEntry> projectClassLoaderCache = new ConcurrentHashMap<>();
+
+    private static Map<String, CacheStatistics> projectClassLoaderStats = new ConcurrentHashMap<>();
 
     public static void clearCache() {
-        projectClassLoaderCache.clear(); // TODO: Close class loaders?
+        projectClassLoaderCache.keySet().forEach(GroovyClassLoaderFactory::clearCache);
     }
 
     public static void clearCache(String projectName) {
-        Map.Entry<?, GroovyClassLoader[]> entry = projectClassLoaderCache.remove(projectName);
+        CacheEntry entry = projectClassLoaderCache.remove(projectName);
         if (entry != null) {
-            Arrays.stream(entry.getValue()).filter(Objects::nonNull).forEach(GroovyClassLoaderFactory::close);
+            entry.close();
+        }
+    }
+
+    /**
+     * @return usage counts of the loaders of the given project or {@code null} if the project has not requested any
+     */
+    public static CacheStatistics getCacheStatistics(String projectName) {
+        CacheStatistics stats = projectClassLoaderStats.get(projectName);
+        if (stats != null) {
+            CacheEntry entry = projectClassLoaderCache.get(projectName);
+            stats.loadedClasses = (entry != null ? entry.getLoadedClassCount() : 0);
         }
+        return stats;
+    }
+
+    private static CacheStatistics getStats(String projectName) {
+        return projectClassLoaderStats.computeIfAbsent(projectName, x -> new CacheStatistics());
     }
 
     private static void close(ClassLoader classLoader) {
@@ -146,7 +166,9 @@ public final class GroovyClassLoaderFactory {
             IJavaProject javaProject = JavaCore.create(project);
             IClasspathEntry[] classpathEntries = javaProject.exists() ? javaProject.getResolvedClasspath(true) : new IClasspathEntry[0];
 
-            Map.Entry<IClasspathEntry[], GroovyClassLoader[]> entry = projectClassLoaderCache.computeIfAbsent(projectName, key -> {
+            boolean[] created = new boolean[1];
+            CacheEntry entry = projectClassLoaderCache.computeIfAbsent(projectName, key -> {
+                created[0] = true;
                 Set<String> classPaths = new LinkedHashSet<>(), xformPaths = new LinkedHashSet<>();
                 if (javaProject.exists()) calculateClasspath(javaProject, classPaths, xformPaths);
 
@@ -157,17 +179,22 @@ public final class GroovyClassLoaderFactory {
 
                 ClassLoader parentClassLoader = ClassLoader.getSystemClassLoader();
 
-                return new java.util.AbstractMap.SimpleEntry<>(classpathEntries, new GroovyClassLoader[] {
+                return new CacheEntry(classpathEntries, new GroovyClassLoader[] {
                     new GrapeAwareGroovyClassLoader(project, newClassLoader(classPaths, parentClassLoader), compilerConfiguration),
                     new EclipseGroovyClassLoader(project, newClassLoader(xformPaths, getClass().getClassLoader())/*, compilerConfiguration*/),
                 });
             });
 
-            if (Arrays.equals(classpathEntries, entry.getKey())) {
-                return entry.getValue();
+            if (Arrays.equals(classpathEntries, entry.classpath)) {
+                if (created[0]) {
+                    getStats(projectName).misses.increment();
+                } else {
+                    getStats(projectName).hits.increment();
+                }
+                return entry.loaders;
             } else {
                 // project classpath has changed; remove and reload
-                projectClassLoaderCache.remove(projectName);
+                projectClassLoaderCache.remove(projectName, entry);
                 return getProjectGroovyClassLoaders(compilerConfiguration);
             }
         } catch (Exception e) {
@@ -239,7 +266,7 @@ public final class GroovyClassLoaderFactory {
             if (parent == null) parent = URLClassLoader.newInstance(new URL[0], null);
             return new org.apache.xbean.classloader.NonLockingJarFileClassLoader("GDT non-locking loader", urls, parent);
         } else {
-            return URLClassLoader.newInstance(urls, parent);
+            return new CountingURLClassLoader(urls, parent);
         }
     }
 
@@ -252,6 +279,75 @@ public final class GroovyClassLoaderFactory {
 
     //--------------------------------------------------------------------------
 
+    public static final class CacheStatistics {
+        private final LongAdder hits = new LongAdder(), misses = new LongAdder();
+        private volatile int loadedClasses;
+
+        public long getHitCount() {
+            return hits.sum();
+        }
+
+        public long getMissCount() {
+            return misses.sum();
+        }
+
+        /**
+         * @return number of classes defined by the project's current loaders
+         */
+        public int getLoadedClassCount() {
+            return loadedClasses;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d, misses=%d, loadedClasses=%d", getHitCount(), getMissCount(), getLoadedClassCount());
+        }
+    }
+
+    private static final class CacheEntry {
+        final IClasspathEntry[] classpath;
+        final GroovyClassLoader[] loaders;
+
+        CacheEntry(IClasspathEntry[] classpath, GroovyClassLoader[] loaders) {
+            this.classpath = classpath;
+            this.loaders = loaders;
+        }
+
+        int getLoadedClassCount() {
+            int count = 0;
+            for (GroovyClassLoader loader : loaders) {
+                count += loader.getLoadedClasses().length;
+                if (loader.getParent() instanceof CountingURLClassLoader) {
+                    count += ((CountingURLClassLoader) loader.getParent()).loadedClasses.intValue();
+                }
+            }
+            return count;
+        }
+
+        void close() {
+            Arrays.stream(loaders).filter(Objects::nonNull).forEach(GroovyClassLoaderFactory::close);
+        }
+    }
+
+    private static class CountingURLClassLoader extends URLClassLoader {
+        static {
+            registerAsParallelCapable();
+        }
+
+        final LongAdder loadedClasses = new LongAdder();
+
+        CountingURLClassLoader(final URL[] urls, final ClassLoader parent) {
+            super(urls, parent);
+        }
+
+        @Override
+        protected Class<?> findClass(final String name) throws ClassNotFoundException {
+            Class<?> c = super.findClass(name);
+            loadedClasses.increment();
+            return c;
+        }
+    }
+
     private static class EclipseGroovyClassLoader extends GroovyClassLoader {
 
         private EclipseGroovyClassLoader(final IProject project, final ClassLoader parent) {
@@ -366,5 +462,15 @@ public final class GroovyClassLoaderFactory {
             if (defaultStaticCategories == null) getDefaultCategories();
             return defaultStaticCategories.stream().map(Class::getName).anyMatch(name::equals);
         }
+
+        private final Map<Class<?>, Object> defaultCategoryIndexes = new ConcurrentHashMap<>();
+
+        /**
+         * Returns the index of the given kind that is built from {@link #getDefaultCategories()}.
+         * The index is created on first request and shares the lifetime of this loader.
+         */
+        public <T> T getDefaultCategoryIndex(final Class<T> kind, final Function<Set<Class>, ? extends T> factory) {
+            return kind.cast(defaultCategoryIndexes.computeIfAbsent(kind, x -> factory.apply(getDefaultCategories())));
+        }
     }
 }
@@ -28,6 +28,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -172,6 +173,8 @@ import org.eclipse.jdt.internal.core.util.Util;
  */
 public class GroovyCompilationUnitDeclaration extends CompilationUnitDeclaration {
 
+    private static final LongAdder harvestedClassCount = new LongAdder(), skippedClassCount = new LongAdder();
+
     private static final boolean DEBUG_CODE_GENERATION = Boolean.parseBoolean(Platform.getDebugOption("org.codehaus.groovy.eclipse.core/debug/codegen"));
 
     private static final boolean DEBUG_TASK_TAGS = Boolean.parseBoolean(Platform.getDebugOption("org.codehaus.groovy.eclipse.core/debug/tasktags"));
@@ -303,7 +306,6 @@ public class GroovyCompilationUnitDeclaration extends CompilationUnitDeclaration
         populator.populate(this);
     }
 
-    // FIXASC are costly regens being done for all the classes???
     @Override
     public void generateCode() {
         boolean successful = processToPhase(Phases.ALL);
@@ -329,58 +331,59 @@ public class GroovyCompilationUnitDeclaration extends CompilationUnitDeclaration
             // we have to do very little hunting for the binding and don't have to mess around with strings (chopping off
             // packages, etc).
 
-            // This returns all of them, for all source files
-            List<GroovyClass> classes = compilationUnit.getClasses();
+            // The compilation unit indexes generated classes by source as they are produced, so only the classes of
+            // this groovySourceUnit are visited (rather than those of every source file in the project).
+            List<GroovyClass> classes = compilationUnit.getClasses(groovySourceUnit);
+            harvestedClassCount.add(classes.size());
+            skippedClassCount.add(compilationUnit.getClasses().size() - classes.size());
 
             if (DEBUG_CODE_GENERATION) {
                 System.out.println("Processing sourceUnit " + groovySourceUnit.getName());
             }
 
+            Map<ClassNode, SourceTypeBinding> bindings = null;
             for (GroovyClass groovyClass : classes) {
                 ClassNode classNode = groovyClass.getClassNode();
                 if (DEBUG_CODE_GENERATION) {
                     System.out.println("Looking at class " + groovyClass.getName());
                     System.out.println("ClassNode where it came from " + classNode);
                 }
-                // Only care about those coming about because of this groovySourceUnit
-                if (groovyClass.getSourceUnit() == groovySourceUnit) {
-                    if (DEBUG_CODE_GENERATION) {
-                        System.out.println("It is from this source unit");
-                    }
-                    // Worth continuing
-                    SourceTypeBinding binding = null;
-                    if (types != null && types.length != 0) {
-                        binding = findBinding(types, groovyClass.getClassNode());
-                    }
-                    if (DEBUG_CODE_GENERATION) {
-                        System.out.println("Binding located? " + (binding != null));
+                SourceTypeBinding binding = null;
+                if (types != null && types.length != 0) {
+                    if (bindings == null) {
+                        bindings = new HashMap<>();
+                        indexBindings(types, bindings);
                     }
-                    if (binding == null) {
-                        // closures will be represented as InnerClassNodes
-                        ClassNode current = classNode;
-                        while ((current = current.getOuterClass()) != null && binding == null) {
-                            binding = findBinding(types, current);
-                            if (DEBUG_CODE_GENERATION) {
-                                System.out.println("Had another look within enclosing class; found binding? " + (binding != null));
-                            }
+                    binding = bindings.get(classNode);
+                }
+                if (DEBUG_CODE_GENERATION) {
+                    System.out.println("Binding located? " + (binding != null));
+                }
+                if (binding == null) {
+                    // closures will be represented as InnerClassNodes
+                    ClassNode current = classNode;
+                    while ((current = current.getOuterClass()) != null && binding == null) {
+                        binding = (bindings != null ? bindings.get(current) : null);
+                        if (DEBUG_CODE_GENERATION) {
+                            System.out.println("Had another look within enclosing class; found binding? " + (binding != null));
                         }
                     }
+                }
 
-                    boolean isScript = false;
-                    // suppress class file output if it is a script; a null binding implies a synthetic type, which we assume cannot be a script
-                    if (binding != null && binding.scope != null && (binding.scope.parent instanceof GroovyCompilationUnitScope)) {
-                        GroovyCompilationUnitScope gcuScope = (GroovyCompilationUnitScope) binding.scope.parent;
-                        isScript = gcuScope.isScript();
-                    }
-                    if (!isScript) {
-                        GroovyClassFile groovyClassFile = new GroovyClassFile(groovyClass.getName(), groovyClass.getBytes(), binding, groovyClass.getName().replace('.', '/'));
-                        if (binding == null) {
-                            // GRECLIPSE-1653: this type is synthetic -- likely added by an AST transform
-                            Map<char[], ClassFile> compiledTypes = Map.class.cast(compilationResult.compiledTypes);
-                            compiledTypes.put(groovyClass.getName().toCharArray(), groovyClassFile);
-                        } else {
-                            compilationResult.record(groovyClass.getName().toCharArray(), groovyClassFile);
-                        }
+                boolean isScript = false;
+                // suppress class file output if it is a script; a null binding implies a synthetic type, which we assume cannot be a script
+                if (binding != null && binding.scope != null && (binding.scope.parent instanceof GroovyCompilationUnitScope)) {
+                    GroovyCompilationUnitScope gcuScope = (GroovyCompilationUnitScope) binding.scope.parent;
+                    isScript = gcuScope.isScript();
+                }
+                if (!isScript) {
+                    GroovyClassFile groovyClassFile = new GroovyClassFile(groovyClass.getName(), groovyClass.getBytes(), binding, groovyClass.getName().replace('.', '/'));
+                    if (binding == null) {
+                        // GRECLIPSE-1653: this type is synthetic -- likely added by an AST transform
+                        Map<char[], ClassFile> compiledTypes = Map.class.cast(compilationResult.compiledTypes);
+                        compiledTypes.put(groovyClass.getName().toCharArray(), groovyClassFile);
+                    } else {
+                        compilationResult.record(groovyClass.getName().toCharArray(), groovyClassFile);
                     }
                 }
             }
@@ -396,20 +399,28 @@ public class GroovyCompilationUnitDeclaration extends CompilationUnitDeclaration
         }
     }
 
-    private static SourceTypeBinding findBinding(TypeDeclaration[] typedeclarations, ClassNode cnode) {
+    private static void indexBindings(TypeDeclaration[] typedeclarations, Map<ClassNode, SourceTypeBinding> bindings) {
         for (TypeDeclaration typedeclaration : typedeclarations) {
             GroovyTypeDeclaration groovyTypeDeclaration = (GroovyTypeDeclaration) typedeclaration;
-            if (groovyTypeDeclaration.getClassNode().equals(cnode)) {
-                return groovyTypeDeclaration.binding;
-            }
+            bindings.putIfAbsent(groovyTypeDeclaration.getClassNode(), groovyTypeDeclaration.binding);
             if (typedeclaration.memberTypes != null) {
-                SourceTypeBinding binding = findBinding(typedeclaration.memberTypes, cnode);
-                if (binding != null) {
-                    return binding;
-                }
+                indexBindings(typedeclaration.memberTypes, bindings);
             }
         }
-        return null;
+    }
+
+    /**
+     * @return number of generated classes recorded by {@link #generateCode()} for their own source
+     */
+    public static long getHarvestedClassCount() {
+        return harvestedClassCount.sum();
+    }
+
+    /**
+     * @return number of generated classes of other sources that {@link #generateCode()} did not have to examine
+     */
+    public static long getSkippedClassCount() {
+        return skippedClassCount.sum();
     }
 
     private static int getLine(int[] lineSeparatorPositions, int offset) {
@@ -32,6 +32,7 @@ import org.codehaus.groovy.control.CompilationUnit.ProgressListener;
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.Phases;
 import org.codehaus.groovy.control.SourceUnit;
+import org.codehaus.groovy.eclipse.PhaseProfiler;
 import org.codehaus.jdt.groovy.control.EclipseSourceUnit;
 import org.codehaus.jdt.groovy.integration.internal.GroovyLanguageSupport;
 import org.codehaus.jdt.groovy.internal.compiler.GroovyClassLoaderFactory;
@@ -87,6 +88,7 @@ public class GroovyParser {
     public static void clearCache(String projectName) {
         scriptFolderSelectorCache.remove(projectName);
         GroovyClassLoaderFactory.clearCache(projectName);
+        GroovyLanguageSupport.clearConfigScriptCache(projectName);
     }
 
     //--------------------------------------------------------------------------
@@ -144,6 +146,9 @@ public class GroovyParser {
     }
 
     public void reset() {
+        if (compilationUnit != null && compilationUnit.getProfiler() != null) {
+            compilationUnit.getProfiler().report();
+        }
         compilationUnit = null;
         resolver = null;
     }
@@ -194,6 +199,9 @@ public class GroovyParser {
                 if (builder.notifier != null) {
                     compilationUnit.setProgressListener(newProgressListener(builder.notifier));
                 }
+                if (compilationUnit.getProfiler() == null && eclipseFile != null) {
+                    compilationUnit.setProfiler(PhaseProfiler.newInstance(eclipseFile.getProject().getName()));
+                }
                 if (eclipseFile != null) {
                     SourceFile sourceFile = (SourceFile) builder.fromIFile(eclipseFile);
                     if (sourceFile != null) {
@@ -22,6 +22,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import groovy.lang.MissingClassException;
@@ -123,6 +124,17 @@ public class JDTClassNode extends ClassNode implements JDTNode {
 
     private boolean unfindable;
 
+    /**
+     * Names of the methods (including "&lt;init&gt;") and fields converted so far
+     * for a binary type, or {@code null} once all members have been converted.
+     */
+    private volatile Set<String> lazyMethodNames, lazyFieldNames;
+
+    /** Set while {@link #materializeMembers} converts the remaining members. */
+    private boolean materializing;
+
+    private static final boolean LAZY_MEMBERS = !Boolean.getBoolean("greclipse.jdtClassNode.eagerMembers");
+
     //--------------------------------------------------------------------------
 
     public JDTClassNode(ReferenceBinding jdtReferenceBinding, JDTResolver resolver) {
@@ -229,6 +241,22 @@ public class JDTClassNode extends ClassNode implements JDTNode {
             return;
         }
 
+        if (LAZY_MEMBERS && jdtBinding instanceof BinaryTypeBinding) {
+            // members of binary types are converted by name as they are requested
+            lazyMethodNames = new HashSet<>();
+            lazyFieldNames = new HashSet<>();
+            return;
+        }
+
+        convertMembers(Collections.emptySet(), Collections.emptySet());
+    }
+
+    /**
+     * Converts the method, constructor and field bindings of the type in binding
+     * order.  Members whose names are in {@code methodNames} or {@code fieldNames}
+     * have been converted already and are skipped.
+     */
+    private void convertMembers(Set<String> methodNames, Set<String> fieldNames) {
         try {
             MethodBinding[] methodBindings;
             if (jdtBinding instanceof ParameterizedTypeBinding) {
@@ -239,26 +267,14 @@ public class JDTClassNode extends ClassNode implements JDTNode {
             }
             if (methodBindings != null) {
                 for (MethodBinding methodBinding : methodBindings) {
-                    if (methodBinding.isConstructor()) {
-                        ConstructorNode cNode = constructorBindingToConstructorNode(methodBinding);
-                        addConstructor(cNode);
-                    } else {
-                        MethodNode mNode = methodBindingToMethodNode(methodBinding);
-                        addMethod(mNode);
-                    }
+                    addMethodBinding(methodBinding, methodNames);
                 }
             }
 
             if (jdtBinding instanceof BinaryTypeBinding) {
                 MethodBinding[] infraBindings = ((BinaryTypeBinding) jdtBinding).infraMethods();
                 for (MethodBinding methodBinding : infraBindings) {
-                    if (methodBinding.isConstructor()) {
-                        ConstructorNode cNode = constructorBindingToConstructorNode(methodBinding);
-                        addConstructor(cNode);
-                    } else {
-                        MethodNode mNode = methodBindingToMethodNode(methodBinding);
-                        addMethod(mNode);
-                    }
+                    addMethodBinding(methodBinding, methodNames);
                 }
             } else if (jdtBinding instanceof SourceTypeBinding && (jdtBinding.tagBits & TagBits.HasMissingType) == 0) {
                 SourceTypeBinding jdtSourceTypeBinding = (SourceTypeBinding) jdtBinding;
@@ -275,13 +291,7 @@ public class JDTClassNode extends ClassNode implements JDTNode {
                     SyntheticMethodBinding[] syntheticMethodBindings = jdtSourceTypeBinding.syntheticMethods();
                     if (syntheticMethodBindings != null) {
                         for (SyntheticMethodBinding syntheticBinding : syntheticMethodBindings) {
-                            if (syntheticBinding.isConstructor()) {
-                                ConstructorNode cNode = constructorBindingToConstructorNode(syntheticBinding);
-                                addConstructor(cNode);
-                            } else {
-                                MethodNode mNode = methodBindingToMethodNode(syntheticBinding);
-                                addMethod(mNode);
-                            }
+                            addMethodBinding(syntheticBinding, methodNames);
                         }
                     }
                 }
@@ -295,8 +305,10 @@ public class JDTClassNode extends ClassNode implements JDTNode {
             }
             if (fieldBindings != null) {
                 for (FieldBinding fieldBinding : fieldBindings) {
-                    FieldNode fNode = fieldBindingToFieldNode(fieldBinding, groovyTypeDecl);
-                    addField(fNode);
+                    if (!fieldNames.contains(String.valueOf(fieldBinding.name))) {
+                        FieldNode fNode = fieldBindingToFieldNode(fieldBinding, groovyTypeDecl);
+                        addField(fNode);
+                    }
                 }
             }
         } catch (AbortCompilation e) {
@@ -306,6 +318,41 @@ public class JDTClassNode extends ClassNode implements JDTNode {
         }
     }
 
+    private void addMethodBinding(MethodBinding methodBinding, Set<String> methodNames) {
+        if (methodNames.contains(String.valueOf(methodBinding.selector))) {
+            return;
+        }
+        if (methodBinding.isConstructor()) {
+            addConstructor(constructorBindingToConstructorNode(methodBinding));
+        } else {
+            addMethod(methodBindingToMethodNode(methodBinding));
+        }
+    }
+
+    /**
+     * Converts the not-yet-converted members of a binary type.  Members that
+     * were converted by name stay in place, since other threads may be reading
+     * them; the rest are added after them in binding order.
+     */
+    private void materializeMembers() {
+        if (lazyMethodNames != null) {
+            synchronized (this) {
+                Set<String> methodNames = lazyMethodNames, fieldNames = lazyFieldNames;
+                if (methodNames != null && !materializing) {
+                    materializing = true;
+                    try {
+                        convertMembers(methodNames, fieldNames);
+                    } finally {
+                        materializing = false;
+                        // readers stop taking the lock once all members are in place
+                        lazyMethodNames = null;
+                        lazyFieldNames = null;
+                    }
+                }
+            }
+        }
+    }
+
     private MethodNode methodBindingToMethodNode(MethodBinding methodBinding) {
         try {
             int modifiers = methodBinding.modifiers;
@@ -465,6 +512,118 @@ public class JDTClassNode extends ClassNode implements JDTNode {
 
     //--------------------------------------------------------------------------
 
+    @Override
+    public List<MethodNode> getMethods() {
+        if (!isRedirectNode()) {
+            lazyClassInit();
+            materializeMembers();
+        }
+        return super.getMethods();
+    }
+
+    @Override
+    public List<MethodNode> getDeclaredMethods(String name) {
+        if (!isRedirectNode()) {
+            lazyClassInit();
+            if (lazyMethodNames != null) {
+                synchronized (this) {
+                    convertMethods(name);
+                    return super.getDeclaredMethods(name);
+                }
+            }
+        }
+        return super.getDeclaredMethods(name);
+    }
+
+    @Override
+    public List<ConstructorNode> getDeclaredConstructors() {
+        if (!isRedirectNode()) {
+            lazyClassInit();
+            if (lazyMethodNames != null) {
+                synchronized (this) {
+                    convertMethods("<init>");
+                    return super.getDeclaredConstructors();
+                }
+            }
+        }
+        return super.getDeclaredConstructors();
+    }
+
+    @Override
+    public List<FieldNode> getFields() {
+        if (!isRedirectNode()) {
+            lazyClassInit();
+            materializeMembers();
+        }
+        return super.getFields();
+    }
+
+    @Override
+    public FieldNode getDeclaredField(String name) {
+        if (!isRedirectNode()) {
+            lazyClassInit();
+            if (lazyFieldNames != null) {
+                synchronized (this) {
+                    convertField(name);
+                    return super.getDeclaredField(name);
+                }
+            }
+        }
+        return super.getDeclaredField(name);
+    }
+
+    /**
+     * Overrides {@code ClassNode#getFieldIndex()} of Groovy 2.5+; there is no
+     * {@code @Override} because ClassNode of Groovy 2.4 does not declare it.
+     */
+    public Map<String, FieldNode> getFieldIndex() {
+        if (!isRedirectNode()) {
+            lazyClassInit();
+            materializeMembers();
+        }
+        return ReflectionUtils.getPrivateField(ClassNode.class, "fieldIndex", this);
+    }
+
+    /**
+     * Converts the methods (or constructors) of a binary type that have the
+     * given name.  Called with the lock on this node held; the lists of names
+     * converted so far are never changed again, so readers may keep them.
+     */
+    private void convertMethods(String name) {
+        Set<String> names = lazyMethodNames;
+        if (names != null && !materializing && names.add(name)) {
+            try {
+                char[] selector = name.toCharArray();
+                for (MethodBinding methodBinding : jdtBinding.getMethods(selector)) {
+                    addMethodBinding(methodBinding, Collections.emptySet());
+                }
+                for (MethodBinding methodBinding : ((BinaryTypeBinding) jdtBinding).infraMethods()) {
+                    if (CharOperation.equals(selector, methodBinding.selector)) {
+                        addMethodBinding(methodBinding, Collections.emptySet());
+                    }
+                }
+            } catch (AbortCompilation e) {
+                throw e;
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Failed to initialize methods named " + name + " for type " + getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Converts the field of a binary type that has the given name.  Called with
+     * the lock on this node held.
+     */
+    private void convertField(String name) {
+        Set<String> names = lazyFieldNames;
+        if (names != null && !materializing && names.add(name)) {
+            FieldBinding fieldBinding = jdtBinding.getField(name.toCharArray(), true);
+            if (fieldBinding != null) {
+                addField(fieldBindingToFieldNode(fieldBinding, groovyTypeDecl));
+            }
+        }
+    }
+
     @Override
     public List<AnnotationNode> getAnnotations() {
         if ((bits & ANNOTATIONS_INITIALIZED) == 0) {
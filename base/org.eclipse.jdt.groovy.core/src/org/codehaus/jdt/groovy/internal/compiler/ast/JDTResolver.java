@@ -120,12 +120,15 @@ public class JDTResolver extends ResolveVisitor {
     }
 
     public static JDTClassNode getCachedNode(JDTResolver instance, String name) {
-        for (JDTClassNode nodeFromCache : instance.nodeCache.values()) {
-            if (name.equals(String.valueOf(nodeFromCache.getJdtBinding().readableName()))) {
-                return nodeFromCache;
+        // index is built on demand, so that resolving types does not pay for it
+        if (instance.nodeIndexSource != instance.nodeCache.size()) {
+            instance.nodeIndex.clear();
+            for (JDTClassNode nodeFromCache : instance.nodeCache.values()) {
+                instance.nodeIndex.putIfAbsent(String.valueOf(nodeFromCache.getJdtBinding().readableName()), nodeFromCache);
             }
+            instance.nodeIndexSource = instance.nodeCache.size();
         }
-        return null;
+        return instance.nodeIndex.get(name);
     }
 
     public GroovyCompilationUnitScope getScope() {
@@ -145,6 +148,10 @@ public class JDTResolver extends ResolveVisitor {
     // Cache from bindings to JDTClassNodes to avoid unnecessary JDTClassNode creation
     private Map<TypeBinding, JDTClassNode> nodeCache = new IdentityHashMap<>();
 
+    // Index of 'nodeCache' by binding readable name for test cases; rebuilt when 'nodeCache' size differs from 'nodeIndexSource'
+    private Map<String, JDTClassNode> nodeIndex = new HashMap<>();
+    private int nodeIndexSource;
+
     private Set<ClassNode> resolvedClassNodes = new HashSet<>();
 
     /**
@@ -174,6 +174,7 @@ public class GroovyCompilationUnit extends CompilationUnit {
                 ModuleNodeMapper.getInstance().remove(info);
             }
             super.discardWorkingCopy();
+            ModuleNodeMapper.getInstance().removeIfDiscarded(info);
         } finally {
             ModuleNodeMapper.getInstance().unlock();
         }
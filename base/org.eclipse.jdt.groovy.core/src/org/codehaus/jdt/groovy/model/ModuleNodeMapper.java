@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2019 the original author or authors.
+ * Copyright 2009-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,10 +15,11 @@
  */
 package org.codehaus.jdt.groovy.model;
 
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.codehaus.groovy.ast.ModuleNode;
@@ -28,11 +29,8 @@ import org.codehaus.groovy.ast.stmt.ReturnStatement;
 import org.codehaus.groovy.ast.stmt.Statement;
 import org.codehaus.jdt.groovy.internal.compiler.ast.GroovyCompilationUnitDeclaration;
 import org.codehaus.jdt.groovy.internal.compiler.ast.JDTResolver;
-import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Status;
-import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.groovy.core.util.ReflectionUtils;
+import org.eclipse.jdt.groovy.search.InferredTypeTable;
 import org.eclipse.jdt.internal.compiler.CompilationResult;
 import org.eclipse.jdt.internal.core.JavaModelManager.PerWorkingCopyInfo;
 
@@ -57,14 +55,43 @@ public class ModuleNodeMapper {
         return INSTANCE.infoToModuleMap.size();
     }
 
+    public static long getHitCount() {
+        return INSTANCE.hits.sum();
+    }
+
+    public static long getMissCount() {
+        return INSTANCE.misses.sum();
+    }
+
+    /**
+     * @return number of times {@link #lock()} had to wait for another thread
+     */
+    public static long getContentionCount() {
+        return INSTANCE.contentions.sum();
+    }
+
     //
 
-    private final Map<PerWorkingCopyInfo, ModuleNodeInfo> infoToModuleMap = new HashMap<>();
+    /** Number of puts between full sweeps for working copies discarded without going through {@link #remove}. */
+    private static final int SWEEP_INTERVAL = 64;
 
-    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Map<PerWorkingCopyInfo, ModuleNodeInfo> infoToModuleMap = new ConcurrentHashMap<>();
+
+    private final AtomicInteger putsSinceSweep = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder(), contentions = new LongAdder();
+
+    /**
+     * Guards compound working copy operations (become, query, discard) of
+     * {@link GroovyCompilationUnit}; individual map operations do not use it.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
 
     public void lock() {
-        lock.lock();
+        if (!lock.tryLock()) {
+            contentions.increment();
+            lock.lock();
+        }
     }
 
     public void unlock() {
@@ -73,33 +100,40 @@ public class ModuleNodeMapper {
 
     //--------------------------------------------------------------------------
 
+    /**
+     * @param info working copy info that the caller knows to be open
+     */
     ModuleNodeInfo get(PerWorkingCopyInfo info) {
-        lock.lock();
-        try {
-            sweepAndPurgeModuleNodes();
-            return infoToModuleMap.get(info);
-        } finally {
-            lock.unlock();
-        }
+        ModuleNodeInfo moduleNodeInfo = infoToModuleMap.get(info);
+        (moduleNodeInfo != null ? hits : misses).increment();
+        return moduleNodeInfo;
     }
 
     ModuleNodeInfo put(PerWorkingCopyInfo info, ModuleNodeInfo tuple) {
-        lock.lock();
-        try {
+        if (putsSinceSweep.incrementAndGet() >= SWEEP_INTERVAL) {
+            putsSinceSweep.set(0);
             sweepAndPurgeModuleNodes();
-            return infoToModuleMap.put(info, tuple);
-        } finally {
-            lock.unlock();
         }
+        ModuleNodeInfo previous = infoToModuleMap.put(info, tuple);
+        // the working copy may have been discarded by another thread before the put;
+        // removeIfDiscarded runs after the discard, so one of the two sees the entry
+        if (isDiscarded(info)) {
+            infoToModuleMap.remove(info, tuple);
+        }
+        return previous;
     }
 
     ModuleNodeInfo remove(PerWorkingCopyInfo info) {
-        lock.lock();
-        try {
-            sweepAndPurgeModuleNodes();
-            return infoToModuleMap.remove(info);
-        } finally {
-            lock.unlock();
+        return infoToModuleMap.remove(info);
+    }
+
+    /**
+     * Removes the module node of a working copy once it has been discarded,
+     * including one put by a reconcile that finished during the discard.
+     */
+    void removeIfDiscarded(PerWorkingCopyInfo info) {
+        if (info != null && isDiscarded(info)) {
+            infoToModuleMap.remove(info);
         }
     }
 
@@ -108,38 +142,21 @@ public class ModuleNodeMapper {
      */
     void maybeCacheModuleNode(PerWorkingCopyInfo info, GroovyCompilationUnitDeclaration gcud) {
         if (info != null && gcud != null) {
-            if (lock.tryLock()) {
-                try {
-                    ModuleNode module = gcud.getModuleNode();
-                    if (module != null) {
-                        put(info, new ModuleNodeInfo(module, (JDTResolver) gcud.getCompilationUnit().getResolveVisitor(), gcud.compilationResult()));
-                    }
-                } finally {
-                    lock.unlock();
-                }
-            } else {
-                // lock grabbed by someone else. rerun this operation later
-                new Job("Cache module node") {
-                    @Override
-                    protected IStatus run(IProgressMonitor monitor) {
-                        maybeCacheModuleNode(info, gcud);
-                        return Status.OK_STATUS;
-                    }
-                }.schedule();
+            ModuleNode module = gcud.getModuleNode();
+            if (module != null) {
+                put(info, new ModuleNodeInfo(module, (JDTResolver) gcud.getCompilationUnit().getResolveVisitor(), gcud.compilationResult()));
             }
         }
     }
 
     // GRECLIPSE-804 check to see that the stored nodes are correct and purge any stale elements
     private void sweepAndPurgeModuleNodes() {
-        for (Iterator<PerWorkingCopyInfo> it = infoToModuleMap.keySet().iterator(); it.hasNext();) {
-            PerWorkingCopyInfo info = it.next();
+        infoToModuleMap.keySet().removeIf(ModuleNodeMapper::isDiscarded);
+    }
 
-            Integer useCount = ReflectionUtils.getPrivateField(PerWorkingCopyInfo.class, "useCount", info);
-            if (useCount != null && useCount <= 0) {
-                it.remove();
-            }
-        }
+    private static boolean isDiscarded(PerWorkingCopyInfo info) {
+        Integer useCount = ReflectionUtils.getPrivateField(PerWorkingCopyInfo.class, "useCount", info);
+        return (useCount != null && useCount <= 0);
     }
 
     //--------------------------------------------------------------------------
@@ -150,6 +167,9 @@ public class ModuleNodeMapper {
         public final JDTResolver resolver;
         public final CompilationResult result;
 
+        /** Inferred types of {@link #module}, recorded on first request. */
+        public volatile InferredTypeTable inferredTypes;
+
         public ModuleNodeInfo(ModuleNode module, JDTResolver resolver) {
             this(module, resolver, null);
         }
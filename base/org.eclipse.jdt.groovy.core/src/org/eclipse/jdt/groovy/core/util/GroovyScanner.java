@@ -32,7 +32,7 @@ import org.eclipse.jface.text.IDocument;
  */
 public class GroovyScanner {
 
-    private GroovyLexer lexer;
+    private Lexer lexer;
     private TokenStream stream;
     private boolean whitespaceIncluded;
 
@@ -48,10 +48,24 @@ public class GroovyScanner {
         init(input, whitespaceIncluded);
     }
 
+    /**
+     * Creates a scanner that continues scanning a source at the given antlr
+     * line and column, with the lexer state at that point.
+     *
+     * @param input source from line and column onward
+     * @param state lexer state returned by {@link #getState()}
+     */
+    public GroovyScanner(final Reader input, final int line, final int column, final int[] state) {
+        init(input, false);
+        lexer.setLine(line);
+        lexer.setColumn(column);
+        lexer.setState(state);
+    }
+
     private void init(final Reader input, final boolean whitespaceIncluded) {
         this.whitespaceIncluded = whitespaceIncluded;
 
-        lexer = new GroovyLexer(input);
+        lexer = new Lexer(input);
         lexer.setWhitespaceIncluded(whitespaceIncluded);
 
         stream = lexer.plumb();
@@ -64,6 +78,16 @@ public class GroovyScanner {
         return stream.nextToken();
     }
 
+    /**
+     * Returns the lexer state that affects the tokens that follow: nesting of
+     * parentheses, braces and string constructors, and the last significant
+     * token type.  Scanning the rest of a source with this state gives the
+     * same tokens as scanning the source from the start.
+     */
+    public int[] getState() {
+        return lexer.getState();
+    }
+
     /**
      * Attempts to recover after a scanning error by recreating the Antlr lexer
      * one character past the place where we got an error and tries to continue
@@ -95,4 +119,37 @@ public class GroovyScanner {
     public static int getOffset(final IDocument document, final int line, final int column) throws BadLocationException {
         return document.getLineOffset(line - 1) + column - 1;
     }
+
+    //--------------------------------------------------------------------------
+
+    private static final class Lexer extends GroovyLexer {
+
+        Lexer(final Reader input) {
+            super(input);
+        }
+
+        int[] getState() {
+            int[] state = new int[4 + parenLevelStack.size()];
+            state[0] = parenLevel;
+            state[1] = suppressNewline;
+            state[2] = stringCtorState;
+            state[3] = lastSigTokenType;
+            for (int i = 4; i < state.length; i += 1) {
+                state[i] = ((Integer) parenLevelStack.get(i - 4)).intValue();
+            }
+            return state;
+        }
+
+        @SuppressWarnings("unchecked")
+        void setState(final int[] state) {
+            parenLevel = state[0];
+            suppressNewline = state[1];
+            stringCtorState = state[2];
+            lastSigTokenType = state[3];
+            parenLevelStack.clear();
+            for (int i = 4; i < state.length; i += 1) {
+                parenLevelStack.add(Integer.valueOf(state[i]));
+            }
+        }
+    }
 }
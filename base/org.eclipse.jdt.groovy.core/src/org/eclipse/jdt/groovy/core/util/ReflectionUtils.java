@@ -15,12 +15,21 @@
  */
 package org.eclipse.jdt.groovy.core.util;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -30,6 +39,12 @@ import org.eclipse.jdt.groovy.core.Activator;
 
 /**
  * Common functionality for accessing private fields and methods.
+ * <p>
+ * Members are looked up, made accessible and adapted to method handles once
+ * per declaring class and signature; later calls go through the cached handle.
+ * As with {@link Method#invoke}, exceptions thrown by a method or constructor
+ * are wrapped in an {@link InvocationTargetException} and arguments that do
+ * not match the parameter types cause an {@link IllegalArgumentException}.
  */
 public class ReflectionUtils {
 
@@ -69,8 +84,8 @@ public class ReflectionUtils {
 
     public static <T> T invokeConstructor(final Class<T> instanceType, final Class<?>[] parameterTypes, final Object[] args) {
         try {
-            return invokeConstructor(getConstructor(instanceType, parameterTypes), args);
-        } catch (RuntimeException e) {
+            return instanceType.cast(invoke(getConstructorHandle(instanceType, parameterTypes), null, args));
+        } catch (Exception e) {
             log("Error executing private constructor for '" + instanceType.getName() + "' on class " + instanceType, e);
             return null;
         }
@@ -99,11 +114,7 @@ public class ReflectionUtils {
 
     public static <R, T> R executePrivateMethod(Class<? extends T> clazz, String methodName, Class<?>[] paramTypes, T target, Object[] args) {
         try {
-            Method method = getDeclaredMethod(clazz, methodName, paramTypes);
-
-            @SuppressWarnings("unchecked")
-            R result = (R) method.invoke(target, args);
-            return result;
+            return throwableExecutePrivateMethod(clazz, methodName, paramTypes, target, args);
         } catch (Exception e) {
             log("Error executing private method '" + methodName + "' on class " + clazz, e);
             return null;
@@ -111,52 +122,169 @@ public class ReflectionUtils {
     }
 
     public static <R, T> R throwableExecutePrivateMethod(final Class<? extends T> clazz, final String methodName, final Class<?>[] paramTypes, final T target, final Object[] args) throws Exception {
-        Method method = getDeclaredMethod(clazz, methodName, paramTypes);
-
         @SuppressWarnings("unchecked")
-        R result = (R) method.invoke(target, args);
+        R result = (R) invoke(getMethodHandle(clazz, methodName, paramTypes), target, args);
         return result;
     }
 
     public static <R, T> R throwableGetPrivateField(final Class<? extends T> clazz, final String fieldName, final T target) throws Exception {
-        Field field = getDeclaredField(clazz, fieldName);
-
         @SuppressWarnings("unchecked")
-        R result = (R) field.get(target);
+        R result = (R) invoke(getFieldAccessor(clazz, fieldName).getter, target);
         return result;
     }
 
     public static <T> void throwableSetPrivateField(final Class<? extends T> clazz, final String fieldName, final T target, final Object value) throws Exception {
-        Field field = getDeclaredField(clazz, fieldName);
-
-        field.set(target, value);
+        invoke(getFieldAccessor(clazz, fieldName).setter, target, value);
     }
 
     //--------------------------------------------------------------------------
 
-    private static Field getDeclaredField(final Class<?> clazz, final String field) throws Exception {
+    private static final class FieldAccessor {
+        /** {@code (Object target)Object} */
+        final MethodHandle getter;
+        /** {@code (Object target, Object value)void} */
+        final MethodHandle setter;
+
+        FieldAccessor(final Field field) throws IllegalAccessException {
+            MethodHandle getter = LOOKUP.unreflectGetter(field), setter;
+            try {
+                setter = LOOKUP.unreflectSetter(field);
+            } catch (IllegalAccessException e) {
+                // final field; reflection can still set it
+                setter = FIELD_SET.bindTo(field);
+            }
+            if (Modifier.isStatic(field.getModifiers())) {
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+                if (setter.type().parameterCount() == 1) setter = MethodHandles.dropArguments(setter, 0, Object.class);
+            }
+            this.getter = getter.asType(MethodType.genericMethodType(1));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        }
+    }
+
+    private static FieldAccessor getFieldAccessor(final Class<?> clazz, final String field) throws Exception {
+        return (FieldAccessor) getMember(clazz, new MemberKey(field, null), () -> {
+            Field f = clazz.getDeclaredField(field);
+            if (!f.isAccessible()) f.setAccessible(true);
+            return new FieldAccessor(f);
+        });
+    }
+
+    /**
+     * @return handle of type {@code (Object target, Object[] args)Object}
+     */
+    private static MethodHandle getMethodHandle(final Class<?> clazz, final String method, final Class<?>... paramTypes) throws Exception {
+        return (MethodHandle) getMember(clazz, new MemberKey(method, paramTypes), () -> {
+            Method m = clazz.getDeclaredMethod(method, paramTypes);
+            if (!m.isAccessible()) m.setAccessible(true);
+            MethodHandle handle = wrapExceptions(LOOKUP.unreflect(m));
+            if (Modifier.isStatic(m.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            } else {
+                handle = MethodHandles.filterArguments(handle.asType(handle.type().changeParameterType(0, Object.class)), 0, REQUIRE_NON_NULL);
+            }
+            return spread(handle);
+        });
+    }
+
+    /**
+     * @return handle of type {@code (Object ignored, Object[] args)Object}
+     */
+    private static MethodHandle getConstructorHandle(final Class<?> clazz, final Class<?>... paramTypes) throws Exception {
+        return (MethodHandle) getMember(clazz, new MemberKey("<init>", paramTypes), () ->
+            spread(MethodHandles.dropArguments(wrapExceptions(LOOKUP.unreflectConstructor(getConstructor(clazz, paramTypes))), 0, Object.class)));
+    }
+
+    @FunctionalInterface
+    private interface MemberFactory {
+        Object create() throws Exception;
+    }
+
+    private static Object getMember(final Class<?> clazz, final MemberKey key, final MemberFactory factory) throws Exception {
+        Map<MemberKey, Object> members = MEMBERS.get(clazz);
+        Object member = members.get(key);
+        if (member != null) {
+            return member;
+        }
         try {
-            return FIELDS.computeIfAbsent(clazz.getCanonicalName() + field, k -> {
+            return members.computeIfAbsent(key, k -> {
                 try {
-                    Field f = clazz.getDeclaredField(field);
-                    if (!f.isAccessible()) f.setAccessible(true);
-                    return f;
+                    return factory.create();
+                } catch (RuntimeException e) {
+                    throw e;
                 } catch (Exception e) {
                     throw new RuntimeException(e);
                 }
             });
         } catch (RuntimeException e) {
-            if (e.getClass() == RuntimeException.class && e.getCause() != null) {
+            if (e.getClass() == RuntimeException.class && e.getCause() instanceof Exception) {
                 throw (Exception) e.getCause();
             }
             throw e;
         }
     }
 
-    private static Method getDeclaredMethod(final Class<?> clazz, final String method, final Class<?>... paramTypes) throws Exception {
-        Method m = clazz.getDeclaredMethod(method, paramTypes);
-        if (!m.isAccessible()) m.setAccessible(true);
-        return m;
+    private static final class MemberKey {
+        final String name;
+        /** Parameter types of a method or constructor; {@code null} for a field. */
+        final Class<?>[] paramTypes;
+
+        MemberKey(final String name, final Class<?>[] paramTypes) {
+            this.name = name;
+            this.paramTypes = paramTypes;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof MemberKey)) {
+                return false;
+            }
+            MemberKey that = (MemberKey) obj;
+            return (this.name.equals(that.name) && Arrays.equals(this.paramTypes, that.paramTypes));
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode() * 31 + Arrays.hashCode(paramTypes);
+        }
+    }
+
+    /**
+     * Adapts a handle with a leading receiver to {@code (Object, Object[])Object}.
+     */
+    private static MethodHandle spread(final MethodHandle handle) {
+        int n = handle.type().parameterCount() - 1;
+        return handle.asType(MethodType.genericMethodType(n + 1)).asSpreader(Object[].class, n);
+    }
+
+    private static MethodHandle wrapExceptions(final MethodHandle handle) {
+        return MethodHandles.catchException(handle, Throwable.class,
+            WRAP_THROWABLE.asType(MethodType.methodType(handle.type().returnType(), Throwable.class)));
+    }
+
+    @SuppressWarnings("unused") // see WRAP_THROWABLE
+    private static Object wrapThrowable(final Throwable cause) throws InvocationTargetException {
+        throw new InvocationTargetException(cause);
+    }
+
+    private static Object invoke(final MethodHandle handle, final Object target, final Object... args) throws Exception {
+        try {
+            if (handle.type().parameterCount() == 1) { // field getter
+                return (Object) handle.invokeExact(target);
+            }
+            if (handle.type().returnType() == void.class) { // field setter
+                handle.invokeExact(target, args[0]);
+                return null;
+            }
+            return (Object) handle.invokeExact(target, args);
+        } catch (ClassCastException | WrongMethodTypeException e) {
+            // argument or target does not match the member
+            throw new IllegalArgumentException(e);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(t);
+        }
     }
 
     private static void log(final String message, final Throwable throwable) {
@@ -165,5 +293,24 @@ public class ReflectionUtils {
 
     private static final Object[] NO_ARGS = new Object[0];
     private static final Class<?>[] NO_TYPES = new Class[0];
-    private static final Map<String, Field> FIELDS = new ConcurrentHashMap<>();
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodHandle FIELD_SET, REQUIRE_NON_NULL, WRAP_THROWABLE;
+    static {
+        try {
+            FIELD_SET = LOOKUP.findVirtual(Field.class, "set", MethodType.methodType(void.class, Object.class, Object.class));
+            REQUIRE_NON_NULL = LOOKUP.findStatic(Objects.class, "requireNonNull", MethodType.genericMethodType(1));
+            WRAP_THROWABLE = LOOKUP.findStatic(ReflectionUtils.class, "wrapThrowable", MethodType.methodType(Object.class, Throwable.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** Field accessors and method handles of each class. */
+    private static final ClassValue<Map<MemberKey, Object>> MEMBERS = new ClassValue<Map<MemberKey, Object>>() {
+        @Override
+        protected Map<MemberKey, Object> computeValue(final Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2009-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.jdt.groovy.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchRequestor;
+
+/**
+ * Holds on to the matches found for a search requestor so that they can be
+ * reported later, for example in order after a concurrent search.  Type
+ * requestors that adapt to the kind of search requestor look at the delegate.
+ */
+public class BufferingSearchRequestor extends SearchRequestor {
+
+    /**
+     * @return the search requestor that matches are finally reported to
+     */
+    public static SearchRequestor unwrap(SearchRequestor requestor) {
+        while (requestor instanceof BufferingSearchRequestor) {
+            requestor = ((BufferingSearchRequestor) requestor).delegate;
+        }
+        return requestor;
+    }
+
+    private final SearchRequestor delegate;
+    private final List<SearchMatch> matches = new ArrayList<>();
+
+    public BufferingSearchRequestor(SearchRequestor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void acceptSearchMatch(SearchMatch match) {
+        matches.add(match);
+    }
+
+    /**
+     * Reports the buffered matches to the delegate.
+     */
+    public void flush() throws CoreException {
+        try {
+            for (SearchMatch match : matches) {
+                delegate.acceptSearchMatch(match);
+            }
+        } finally {
+            matches.clear();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2009-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.jdt.groovy.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.jdt.groovy.internal.compiler.GroovyClassLoaderFactory.GrapeAwareGroovyClassLoader;
+
+/**
+ * Immutable index of the category methods (static methods with at least one
+ * parameter) of the default categories of a class loader, keyed by name. Built
+ * once per loader and shared by all inferencing runs that use the loader.
+ */
+final class CategoryMethodIndex {
+
+    static CategoryMethodIndex of(ModuleNode module) {
+        GrapeAwareGroovyClassLoader loader = (GrapeAwareGroovyClassLoader) module.getUnit().getClassLoader();
+        return loader.getDefaultCategoryIndex(CategoryMethodIndex.class, CategoryMethodIndex::new);
+    }
+
+    private final Map<String, List<MethodNode>> methodsByName = new HashMap<>();
+
+    @SuppressWarnings("rawtypes")
+    private CategoryMethodIndex(Set<Class> categories) {
+        for (Class category : categories) {
+            for (MethodNode method : new ClassNode(category).getMethods()) {
+                if (method.isStatic() && method.getParameters().length > 0) {
+                    methodsByName.computeIfAbsent(method.getName(), x -> new ArrayList<>()).add(method);
+                }
+            }
+        }
+        methodsByName.replaceAll((name, methods) -> Collections.unmodifiableList(methods));
+    }
+
+    /**
+     * @return category methods named {@code name} in category declaration order
+     */
+    List<MethodNode> getMethods(String name) {
+        return methodsByName.getOrDefault(name, Collections.emptyList());
+    }
+}
@@ -17,6 +17,7 @@ package org.eclipse.jdt.groovy.search;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import org.codehaus.groovy.ast.ClassNode;
 import org.codehaus.groovy.ast.MethodNode;
@@ -49,12 +50,13 @@ public class CategoryTypeLookup implements ITypeLookup {
             //
             List<MethodNode> candidates = new ArrayList<>();
 
+            CategoryMethodIndex defaultCategories = CategoryMethodIndex.of(scope.getEnclosingModuleNode());
+            Set<ClassNode> otherCategories = scope.getNonDefaultCategoryNames();
+
             if (isMethodPointer || scope.isMethodCall()) {
-                for (ClassNode category : scope.getCategoryNames()) {
-                    for (MethodNode method : category.getMethods(simpleName)) {
-                        if (isCompatibleCategoryMethod(method, selfType, scope)) {
-                            candidates.add(method);
-                        }
+                for (MethodNode method : getCategoryMethods(simpleName, defaultCategories, otherCategories)) {
+                    if (isCompatibleCategoryMethod(method, selfType, scope)) {
+                        candidates.add(method);
                     }
                 }
             }
@@ -62,13 +64,11 @@ public class CategoryTypeLookup implements ITypeLookup {
                 for (AccessorSupport kind : AccessorSupport.values()) {
                     String methodName = kind.createAccessorName(simpleName);
                     if (methodName != null) {
-                        for (ClassNode category : scope.getCategoryNames()) {
-                            for (MethodNode method : category.getMethods(methodName)) {
-                                if (kind.isAccessorKind(method, true) && isCompatibleCategoryMethod(method, selfType, scope) &&
-                                        // GROOVY-5245: isPropName() methods cannot be used for bean-style property expressions
-                                        (kind != AccessorSupport.ISSER || isDefaultGroovyMethod(method, scope) || isDefaultGroovyStaticMethod(method, scope))) {
-                                    candidates.add(method);
-                                }
+                        for (MethodNode method : getCategoryMethods(methodName, defaultCategories, otherCategories)) {
+                            if (kind.isAccessorKind(method, true) && isCompatibleCategoryMethod(method, selfType, scope) &&
+                                    // GROOVY-5245: isPropName() methods cannot be used for bean-style property expressions
+                                    (kind != AccessorSupport.ISSER || isDefaultGroovyMethod(method, scope) || isDefaultGroovyStaticMethod(method, scope))) {
+                                candidates.add(method);
                             }
                         }
                     }
@@ -92,6 +92,20 @@ public class CategoryTypeLookup implements ITypeLookup {
         return null;
     }
 
+    /**
+     * @return methods named {@code name} of the default categories followed by those of the other active categories
+     */
+    private static List<MethodNode> getCategoryMethods(String name, CategoryMethodIndex defaultCategories, Set<ClassNode> otherCategories) {
+        List<MethodNode> methods = defaultCategories.getMethods(name);
+        if (!otherCategories.isEmpty()) {
+            methods = new ArrayList<>(methods);
+            for (ClassNode category : otherCategories) {
+                methods.addAll(category.getMethods(name));
+            }
+        }
+        return methods;
+    }
+
     protected static boolean isCompatibleConstantExpression(Expression node, VariableScope scope, ClassNode selfType) {
         if (node instanceof ConstantExpression && !scope.isTopLevel()) {
             org.codehaus.groovy.ast.ASTNode enclosingNode = scope.getEnclosingNode();
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2009-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.jdt.groovy.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.Parameter;
+import org.codehaus.groovy.ast.Variable;
+import org.codehaus.groovy.ast.expr.VariableExpression;
+import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
+import org.codehaus.jdt.groovy.model.ModuleNodeMapper.ModuleNodeInfo;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.groovy.search.ITypeRequestor.VisitStatus;
+import org.eclipse.jdt.internal.core.DefaultWorkingCopyOwner;
+
+/**
+ * Results of one visit of the inferencing engine over a module, shared by the
+ * editor features that would otherwise each visit the module again.  A table
+ * is attached to the {@link ModuleNodeInfo} of a working copy, so it is dropped
+ * along with the module node when the working copy is reconciled.
+ * <p>
+ * Results are recorded with every node visited; requestors do not cancel parts
+ * of the recording visit.  The {@link VariableScope}s referenced by the results
+ * are in their final state; the declaring scope of parameters is recorded in
+ * {@link TypeLookupResult#parameterScopeNode}.  Requestors that depend on other
+ * transient scope state (enclosing method call, argument types, etc.) should
+ * visit the module using {@link TypeInferencingVisitorFactory} instead.
+ */
+public final class InferredTypeTable {
+
+    /**
+     * @return inferred types of the current module node of {@code unit}
+     */
+    public static InferredTypeTable of(GroovyCompilationUnit unit) {
+        ModuleNodeInfo info = TypeInferencingVisitorWithRequestor.createModuleNode(unit);
+        if (info == null || !(unit.getOwner() == null || unit.owner == DefaultWorkingCopyOwner.PRIMARY)) {
+            // module info is not shared; nothing to gain from keeping results
+            return new InferredTypeTable(unit, info);
+        }
+        InferredTypeTable table = info.inferredTypes;
+        if (table == null) {
+            // visit without holding a lock; if two callers race, the first table stored is kept
+            table = new InferredTypeTable(unit, info);
+            synchronized (info) {
+                if (info.inferredTypes == null) {
+                    info.inferredTypes = table;
+                } else {
+                    table = info.inferredTypes;
+                }
+            }
+            return table;
+        }
+        hits.increment();
+        return table;
+    }
+
+    /**
+     * @return number of times a table was reused instead of visiting a module
+     */
+    public static long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of module visits made to build tables
+     */
+    public static long getMissCount() {
+        return misses.sum();
+    }
+
+    private static final LongAdder hits = new LongAdder(), misses = new LongAdder();
+
+    //--------------------------------------------------------------------------
+
+    private static final class Entry {
+        final ASTNode node;
+        final TypeLookupResult result;
+        final IJavaElement enclosingElement;
+
+        Entry(ASTNode node, TypeLookupResult result, IJavaElement enclosingElement) {
+            this.node = node;
+            this.result = result;
+            this.enclosingElement = enclosingElement;
+        }
+    }
+
+    /** Results in the order they were accepted; a node may be accepted more than once. */
+    private final List<Entry> entries = new ArrayList<>();
+
+    private InferredTypeTable(GroovyCompilationUnit unit, ModuleNodeInfo info) {
+        if (info != null) {
+            misses.increment();
+            ReferenceIndex.Recorder recorder = ReferenceIndex.getInstance().newRecorder(unit);
+            new TypeInferencingVisitorFactory().createVisitor(unit, info).visitCompilationUnit((node, result, enclosingElement) -> {
+                recordParameterScope(node, result);
+                entries.add(new Entry(node, result, enclosingElement));
+                if (recorder != null) {
+                    recorder.acceptASTNode(node, result, enclosingElement);
+                }
+                return VisitStatus.CONTINUE;
+            });
+            if (recorder != null) {
+                recorder.commit();
+            }
+        }
+    }
+
+    /**
+     * Records the scope that declares a parameter while the scope is still in
+     * the state it has at the node.
+     */
+    private static void recordParameterScope(ASTNode node, TypeLookupResult result) {
+        Variable param = null;
+        if (node instanceof Parameter) {
+            param = (Parameter) node;
+        } else if (node instanceof VariableExpression && ((VariableExpression) node).getAccessedVariable() instanceof Parameter) {
+            param = ((VariableExpression) node).getAccessedVariable();
+        }
+        if (param != null && result.scope != null) {
+            VariableScope.VariableInfo info = result.scope.lookupName(param.getName());
+            if (info != null) {
+                result.parameterScopeNode = info.scopeNode;
+            }
+        }
+    }
+
+    /**
+     * Sends the recorded results to {@code requestor} in visit order.
+     * {@link VisitStatus#CANCEL_BRANCH CANCEL_BRANCH} skips the following
+     * results for nodes within the source range of the cancelled node;
+     * {@link VisitStatus#CANCEL_MEMBER CANCEL_MEMBER} skips the following
+     * results for the same enclosing element.
+     */
+    public void replay(ITypeRequestor requestor) {
+        ASTNode cancelledBranch = null;
+        IJavaElement cancelledMember = null;
+        for (Entry entry : entries) {
+            if (cancelledMember != null) {
+                if (entry.enclosingElement == cancelledMember) {
+                    continue;
+                }
+                cancelledMember = null;
+            }
+            if (cancelledBranch != null) {
+                if (entry.node.getEnd() < 1 || (entry.node.getStart() >= cancelledBranch.getStart() &&
+                                                entry.node.getEnd() <= cancelledBranch.getEnd())) {
+                    continue;
+                }
+                cancelledBranch = null;
+            }
+
+            switch (requestor.acceptASTNode(entry.node, entry.result, entry.enclosingElement)) {
+            case CONTINUE:
+                break;
+            case CANCEL_BRANCH:
+                if (entry.node.getEnd() > 0) {
+                    cancelledBranch = entry.node;
+                }
+                break;
+            case CANCEL_MEMBER:
+                cancelledMember = entry.enclosingElement;
+                break;
+            case STOP_VISIT:
+                return;
+            }
+        }
+    }
+}
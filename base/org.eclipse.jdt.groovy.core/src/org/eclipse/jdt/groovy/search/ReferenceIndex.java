@@ -0,0 +1,487 @@
+/*
+ * Copyright 2009-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.jdt.groovy.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.FieldNode;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.PropertyNode;
+import org.codehaus.groovy.ast.expr.ConstantExpression;
+import org.codehaus.groovy.ast.expr.FieldExpression;
+import org.codehaus.groovy.ast.expr.VariableExpression;
+import org.codehaus.jdt.groovy.model.GroovyClassFileWorkingCopy;
+import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ISaveContext;
+import org.eclipse.core.resources.ISaveParticipant;
+import org.eclipse.core.resources.ISavedState;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.groovy.core.Activator;
+import org.eclipse.jdt.groovy.core.util.GroovyUtils;
+import org.eclipse.jdt.internal.core.util.Util;
+
+/**
+ * Index of the member references inferred for each Groovy source file.  For
+ * every referenced (or declared) method, field or property name it records the
+ * declaring types, including their supertypes, that inferencing found.  Files
+ * whose entry shows no reference to the name and type of a method or field
+ * search do not need to be visited by the inferencing engine.
+ * <p>
+ * Entries are recorded whenever a whole file is inferred without unsaved
+ * changes (delegated search and editor reconcile).  Inferred types depend on
+ * other files, the classpath and DSLDs, so the whole index is cleared on any
+ * change to the Java model or refresh of DSLDs; an entry is also dropped if
+ * the modification stamp of its file changes.  The index is saved to the
+ * plug-in state location when the plug-in stops and discarded on load if the
+ * workspace has changed since its last save.
+ */
+public final class ReferenceIndex {
+
+    private static final int VERSION = 1;
+
+    /** Declaring type recorded for references whose type could not be inferred. */
+    private static final String ANY_TYPE = "*";
+
+    private static final class Holder {
+        static final ReferenceIndex INSTANCE = new ReferenceIndex();
+    }
+
+    public static ReferenceIndex getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Saves the index if it has been loaded and changed since.
+     */
+    public static void saveIfLoaded() {
+        if (loaded) {
+            getInstance().save();
+        }
+    }
+
+    /**
+     * Clears the index if it has been loaded.  An index that is loaded later
+     * is checked against the changes to the workspace since its last save.
+     */
+    public static void clearIfLoaded() {
+        if (loaded) {
+            getInstance().clear();
+        }
+    }
+
+    private static volatile boolean loaded;
+
+    //--------------------------------------------------------------------------
+
+    private static final class Entry {
+        final long stamp;
+        final Map<String, Set<String>> references;
+
+        Entry(long stamp, Map<String, Set<String>> references) {
+            this.stamp = stamp;
+            this.references = references;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private volatile boolean dirty;
+
+    /** Replaced when the index is cleared, so visits begun earlier cannot commit. */
+    private volatile Object epoch = new Object();
+
+    private final LongAdder skips = new LongAdder(), visits = new LongAdder();
+
+    private ReferenceIndex() {
+        load();
+        JavaCore.addElementChangedListener(event -> {
+            if (isModelChange(event.getDelta())) {
+                clear();
+            }
+        }, ElementChangedEvent.POST_CHANGE);
+        loaded = true;
+    }
+
+    /**
+     * @return number of files that a search did not have to infer
+     */
+    public long getSkipCount() {
+        return skips.sum();
+    }
+
+    /**
+     * @return number of files that a search had to infer
+     */
+    public long getVisitCount() {
+        return visits.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        epoch = new Object();
+        entries.clear();
+        dirty = true;
+    }
+
+    /**
+     * @return {@code false} if the current entry for {@code unit} shows that
+     *     {@code requestor} would not accept any match within it
+     */
+    public boolean mayContainMatch(GroovyCompilationUnit unit, ITypeRequestor requestor) {
+        String memberName, typeName;
+        if (requestor instanceof MethodReferenceSearchRequestor) {
+            memberName = ((MethodReferenceSearchRequestor) requestor).methodName;
+            typeName = ((MethodReferenceSearchRequestor) requestor).declaringTypeName;
+        } else if (requestor instanceof FieldReferenceSearchRequestor) {
+            memberName = ((FieldReferenceSearchRequestor) requestor).fieldName;
+            typeName = ((FieldReferenceSearchRequestor) requestor).declaringTypeName;
+        } else {
+            return true;
+        }
+
+        Entry entry = getEntry(unit);
+        if (entry != null) {
+            // a name that was not recorded may still be referenced in a way the recorder does not see
+            Set<String> types = entry.references.get(memberName);
+            if (types != null && !typeName.isEmpty() && !types.contains(typeName) && !types.contains(ANY_TYPE)) {
+                skips.increment();
+                return false;
+            }
+        }
+        visits.increment();
+        return true;
+    }
+
+    /**
+     * @return requestor that records the references accepted during a visit of
+     *     {@code unit} or {@code null} if the unit cannot be indexed
+     */
+    public Recorder newRecorder(GroovyCompilationUnit unit) {
+        IResource resource = getResource(unit);
+        if (resource == null) {
+            return null;
+        }
+        return new Recorder(resource.getFullPath().toString(), resource.getModificationStamp(), epoch);
+    }
+
+    private Entry getEntry(GroovyCompilationUnit unit) {
+        IResource resource = getResource(unit);
+        if (resource != null) {
+            String path = resource.getFullPath().toString();
+            Entry entry = entries.get(path);
+            if (entry != null) {
+                if (entry.stamp == resource.getModificationStamp()) {
+                    return entry;
+                }
+                entries.remove(path, entry);
+                dirty = true;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return {@code true} unless the delta only reports working copies being opened or closed
+     */
+    private static boolean isModelChange(IJavaElementDelta delta) {
+        if (delta.getKind() != IJavaElementDelta.CHANGED ||
+                (delta.getFlags() & ~(IJavaElementDelta.F_CHILDREN | IJavaElementDelta.F_PRIMARY_WORKING_COPY)) != 0) {
+            return true;
+        }
+        for (IJavaElementDelta child : delta.getAffectedChildren()) {
+            if (isModelChange(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static IResource getResource(GroovyCompilationUnit unit) {
+        try {
+            if (!(unit instanceof GroovyClassFileWorkingCopy) && !unit.hasUnsavedChanges()) {
+                IResource resource = unit.getResource();
+                if (resource != null && resource.getModificationStamp() != IResource.NULL_STAMP) {
+                    return resource;
+                }
+            }
+        } catch (Exception e) {
+            Util.log(e);
+        }
+        return null;
+    }
+
+    //--------------------------------------------------------------------------
+
+    /**
+     * Records the references of one visit.  The entry is stored by
+     * {@link #commit()} unless a requestor cancelled part of the visit.
+     */
+    public final class Recorder implements ITypeRequestor {
+
+        private final String path;
+        private final long stamp;
+        private final Object epoch;
+        private final Map<String, Set<String>> references = new HashMap<>();
+        private final Map<ClassNode, Set<String>> typeNames = new HashMap<>();
+        private ITypeRequestor delegate = (node, result, enclosingElement) -> VisitStatus.CONTINUE;
+        private boolean complete = true;
+
+        private Recorder(String path, long stamp, Object epoch) {
+            this.path = path;
+            this.stamp = stamp;
+            this.epoch = epoch;
+        }
+
+        /**
+         * Sends accepted nodes on to {@code requestor}.
+         */
+        public Recorder forwardTo(ITypeRequestor requestor) {
+            delegate = requestor;
+            return this;
+        }
+
+        @Override
+        public VisitStatus acceptASTNode(ASTNode node, TypeLookupResult result, IJavaElement enclosingElement) {
+            if (result.declaringType != null) {
+                String name = getReferenceName(node, result);
+                if (name != null) {
+                    record(name, result);
+                }
+                if (result.declaration instanceof MethodNode || result.declaration instanceof FieldNode || result.declaration instanceof PropertyNode) {
+                    String declarationName = getMemberName(result.declaration);
+                    if (!declarationName.equals(name)) {
+                        record(declarationName, result);
+                    }
+                }
+            }
+            VisitStatus status = delegate.acceptASTNode(node, result, enclosingElement);
+            if (status != VisitStatus.CONTINUE) {
+                complete = false;
+            }
+            return status;
+        }
+
+        public void commit() {
+            if (complete) {
+                references.replaceAll((name, types) -> Collections.unmodifiableSet(types));
+                synchronized (ReferenceIndex.this) {
+                    if (epoch == ReferenceIndex.this.epoch) {
+                        entries.put(path, new Entry(stamp, Collections.unmodifiableMap(references)));
+                        dirty = true;
+                    }
+                }
+            }
+        }
+
+        private void record(String name, TypeLookupResult result) {
+            Set<String> types = references.computeIfAbsent(name, x -> new HashSet<>());
+            if (result.confidence == TypeLookupResult.TypeConfidence.UNKNOWN) {
+                types.add(ANY_TYPE);
+            }
+            types.addAll(typeNames.computeIfAbsent(GroovyUtils.getBaseType(result.declaringType), ReferenceIndex::getTypeNames));
+        }
+    }
+
+    private static String getReferenceName(ASTNode node, TypeLookupResult result) {
+        String name = null;
+        if (node instanceof MethodNode || node instanceof FieldNode || node instanceof PropertyNode) {
+            name = getMemberName(node);
+        } else if (node instanceof FieldExpression) {
+            name = ((FieldExpression) node).getFieldName();
+        } else if (node instanceof VariableExpression) {
+            name = ((VariableExpression) node).getName();
+        } else if (node instanceof ConstantExpression && (result.declaration != null || result.confidence == TypeLookupResult.TypeConfidence.UNKNOWN)) {
+            name = node.getText();
+        }
+        return (name != null && isIdentifier(name) ? name : null);
+    }
+
+    private static String getMemberName(ASTNode node) {
+        if (node instanceof MethodNode) {
+            return ((MethodNode) node).getName();
+        } else if (node instanceof FieldNode) {
+            return ((FieldNode) node).getName();
+        } else {
+            return ((PropertyNode) node).getName();
+        }
+    }
+
+    private static boolean isIdentifier(String name) {
+        if (name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0))) {
+            return false;
+        }
+        for (int i = 1, n = name.length(); i < n; i += 1) {
+            if (!Character.isJavaIdentifierPart(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return names of {@code type} and its supertypes in the form used by the search requestors
+     */
+    private static Set<String> getTypeNames(ClassNode type) {
+        Set<String> names = new HashSet<>();
+        Set<ClassNode> types = new HashSet<>();
+        VariableScope.findAllInterfaces(type, types, true);
+        for (ClassNode t = type; t != null; t = t.getSuperClass()) {
+            types.add(t);
+            VariableScope.findAllInterfaces(t, types, true);
+        }
+        for (ClassNode t : types) {
+            names.add(t.getName().replace('$', '.').intern());
+        }
+        return names;
+    }
+
+    //--------------------------------------------------------------------------
+
+    private static File getIndexFile() {
+        Activator activator = Activator.getDefault();
+        if (activator == null) {
+            return null;
+        }
+        return activator.getStateLocation().append("references.index").toFile();
+    }
+
+    private void load() {
+        File file = getIndexFile();
+        if (file == null || !file.isFile()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != VERSION) {
+                return;
+            }
+            for (int i = 0, n = in.readInt(); i < n; i += 1) {
+                String path = in.readUTF();
+                long stamp = in.readLong();
+                Map<String, Set<String>> references = new HashMap<>();
+                for (int j = 0, m = in.readInt(); j < m; j += 1) {
+                    String name = in.readUTF();
+                    Set<String> types = new HashSet<>();
+                    for (int k = 0, t = in.readInt(); k < t; k += 1) {
+                        types.add(in.readUTF().intern());
+                    }
+                    references.put(name, Collections.unmodifiableSet(types));
+                }
+                entries.put(path, new Entry(stamp, Collections.unmodifiableMap(references)));
+            }
+        } catch (IOException e) {
+            entries.clear();
+            Util.log(e, "Failed to read Groovy reference index " + file);
+            return;
+        }
+
+        // the entries cannot be trusted if the workspace has changed since the last save
+        try {
+            ISavedState state = ResourcesPlugin.getWorkspace().addSaveParticipant(Activator.PLUGIN_ID, SAVE_PARTICIPANT);
+            if (state == null) {
+                entries.clear();
+            } else {
+                state.processResourceChangeEvents(event -> {
+                    IResourceDelta delta = event.getDelta();
+                    if (delta != null && delta.getAffectedChildren().length > 0) {
+                        entries.clear();
+                    }
+                });
+            }
+        } catch (CoreException e) {
+            entries.clear();
+            Util.log(e);
+        }
+    }
+
+    /**
+     * Requests the deltas that {@link #load()} checks the saved index against.
+     */
+    private static final ISaveParticipant SAVE_PARTICIPANT = new ISaveParticipant() {
+        @Override
+        public void prepareToSave(ISaveContext context) {
+        }
+
+        @Override
+        public void saving(ISaveContext context) {
+            if (context.getKind() == ISaveContext.FULL_SAVE) {
+                context.needDelta();
+            }
+        }
+
+        @Override
+        public void doneSaving(ISaveContext context) {
+        }
+
+        @Override
+        public void rollback(ISaveContext context) {
+        }
+    };
+
+    private void save() {
+        File file = getIndexFile();
+        if (file == null || !dirty) {
+            return;
+        }
+        dirty = false;
+        Map<String, Entry> snapshot = new HashMap<>(entries);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(VERSION);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, Entry> pathAndEntry : snapshot.entrySet()) {
+                out.writeUTF(pathAndEntry.getKey());
+                out.writeLong(pathAndEntry.getValue().stamp);
+                Map<String, Set<String>> references = pathAndEntry.getValue().references;
+                out.writeInt(references.size());
+                for (Map.Entry<String, Set<String>> nameAndTypes : references.entrySet()) {
+                    out.writeUTF(nameAndTypes.getKey());
+                    out.writeInt(nameAndTypes.getValue().size());
+                    for (String type : nameAndTypes.getValue()) {
+                        out.writeUTF(type);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            file.delete();
+            Util.log(e, "Failed to write Groovy reference index " + file);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2019 the original author or authors.
+ * Copyright 2009-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.util.List;
 
 import org.codehaus.jdt.groovy.model.GroovyClassFileWorkingCopy;
 import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
+import org.codehaus.jdt.groovy.model.ModuleNodeMapper.ModuleNodeInfo;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.internal.core.ClassFile;
@@ -45,6 +46,14 @@ public class TypeInferencingVisitorFactory {
     }
 
     public TypeInferencingVisitorWithRequestor createVisitor(GroovyCompilationUnit compilationUnit) {
+        return new TypeInferencingVisitorWithRequestor(compilationUnit, createLookups(compilationUnit));
+    }
+
+    TypeInferencingVisitorWithRequestor createVisitor(GroovyCompilationUnit compilationUnit, ModuleNodeInfo moduleInfo) {
+        return new TypeInferencingVisitorWithRequestor(compilationUnit, createLookups(compilationUnit), moduleInfo);
+    }
+
+    private static ITypeLookup[] createLookups(GroovyCompilationUnit compilationUnit) {
         List<ITypeLookup> lookups = new ArrayList<>();
         IProject project = compilationUnit.getJavaProject().getProject();
         try {
@@ -55,6 +64,6 @@ public class TypeInferencingVisitorFactory {
         lookups.add(new CategoryTypeLookup());
         lookups.add(new SimpleTypeLookup()); // must be last!
 
-        return new TypeInferencingVisitorWithRequestor(compilationUnit, lookups.toArray(new ITypeLookup[lookups.size()]));
+        return lookups.toArray(new ITypeLookup[lookups.size()]);
     }
 }
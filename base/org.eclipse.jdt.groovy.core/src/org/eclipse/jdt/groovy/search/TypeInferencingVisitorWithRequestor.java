@@ -125,6 +125,7 @@ import org.eclipse.jdt.core.IField;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IMember;
 import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.ISourceRange;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.compiler.CharOperation;
@@ -177,6 +178,12 @@ public class TypeInferencingVisitorWithRequestor extends ClassCodeVisitorSupport
     private BinaryExpression enclosingAssignment;
     private ConstructorCallExpression enclosingConstructorCall;
 
+    /** Source range of interest; method bodies outside of it are not visited. */
+    private int regionStart = -1, regionEnd = -1;
+
+    /** Set while visiting declarations outside of the source range of interest. */
+    private boolean outsideRegion;
+
     /**
      * The head of the stack is the current property/attribute/methodcall/binary
      * expression being visited. This stack is used so we can keep track of the
@@ -209,10 +216,16 @@ public class TypeInferencingVisitorWithRequestor extends ClassCodeVisitorSupport
      * Use factory to instantiate
      */
     TypeInferencingVisitorWithRequestor(final GroovyCompilationUnit unit, final ITypeLookup[] lookups) {
+        this(unit, lookups, createModuleNode(unit));
+    }
+
+    /**
+     * Use factory to instantiate
+     */
+    TypeInferencingVisitorWithRequestor(final GroovyCompilationUnit unit, final ITypeLookup[] lookups, final ModuleNodeInfo info) {
         this.unit = unit;
         this.lookups = lookups;
 
-        ModuleNodeInfo info = createModuleNode(unit);
         if (info == null) {
             this.resolver = null;
             this.enclosingModule = null;
@@ -225,6 +238,24 @@ public class TypeInferencingVisitorWithRequestor extends ClassCodeVisitorSupport
 
     //--------------------------------------------------------------------------
 
+    /**
+     * Visits the declarations that overlap the given source range.  Method and
+     * constructor bodies outside of the range are skipped.  Types, fields and
+     * imports outside of the range are visited for their effect on the scopes,
+     * but they are not sent to the requestor.  The type lookups are initialized
+     * as they are for a full visit.
+     */
+    public void visitCompilationUnit(final ITypeRequestor requestor, final int offset, final int length) {
+        regionStart = offset;
+        regionEnd = offset + length;
+        try {
+            visitCompilationUnit(requestor);
+        } finally {
+            regionStart = regionEnd = -1;
+            outsideRegion = false;
+        }
+    }
+
     public void visitCompilationUnit(final ITypeRequestor requestor) {
         if (enclosingModule == null) {
             // no module node, can't do anything
@@ -244,10 +275,17 @@ public class TypeInferencingVisitorWithRequestor extends ClassCodeVisitorSupport
         }
 
         try {
-            visitPackage(enclosingModule.getPackage());
+            if (isInRegion(enclosingModule.getPackage())) {
+                visitPackage(enclosingModule.getPackage());
+            }
             visitImports(enclosingModule);
             for (IType type : unit.getTypes()) {
-                visitJDT(type, requestor);
+                boolean outsideRegion0 = enterRegion(type);
+                try {
+                    visitJDT(type, requestor);
+                } finally {
+                    outsideRegion = outsideRegion0;
+                }
             }
         } catch (CancellationException e) {
             throw e; // propagate
@@ -312,7 +350,12 @@ public class TypeInferencingVisitorWithRequestor extends ClassCodeVisitorSupport
 
                 for (IMember member : members) {
                     if (member.getElementType() == IJavaElement.FIELD) {
-                        visitJDT((IField) member, requestor);
+                        boolean outsideRegion0 = enterRegion(member);
+                        try {
+                            visitJDT((IField) member, requestor);
+                        } finally {
+                            outsideRegion = outsideRegion0;
+                        }
                     }
                 }
 
@@ -321,7 +364,12 @@ public class TypeInferencingVisitorWithRequestor extends ClassCodeVisitorSupport
                         // visit fields created by @Field
                         for (FieldNode field : node.getFields()) {
                             if (field.getEnd() > 0) {
-                                visitFieldInternal(field);
+                                boolean outsideRegion0 = enterRegion(field);
+                                try {
+                                    visitFieldInternal(field);
+                                } finally {
+                                    outsideRegion = outsideRegion0;
+                                }
                             }
                         }
                     } else {
@@ -329,7 +377,12 @@ public class TypeInferencingVisitorWithRequestor extends ClassCodeVisitorSupport
                         List<FieldNode> traitFields = node.redirect().getNodeMetaData("trait.fields");
                         if (isNotEmpty(traitFields)) {
                             for (FieldNode field : traitFields) {
-                                visitFieldInternal(field);
+                                boolean outsideRegion0 = enterRegion(field);
+                                try {
+                                    visitFieldInternal(field);
+                                } finally {
+                                    outsideRegion = outsideRegion0;
+                                }
                             }
                         }
                     }
@@ -350,9 +403,11 @@ public class TypeInferencingVisitorWithRequestor extends ClassCodeVisitorSupport
                                 if (fieldNode != null && fieldNode.isStatic() && !fieldNode.getName().matches("(MAX|MIN)_VALUE|\\$VALUES") && expr.getRightExpression() != null) {
                                     // create the field scope so that it looks like we are visiting within the context of the field
                                     scopes.add(new VariableScope(scopes.getLast(), fieldNode, true));
+                                    boolean outsideRegion0 = enterRegion(expr.getRightExpression());
                                     try {
                                         expr.getRightExpression().visit(this);
                                     } finally {
+                                        outsideRegion = outsideRegion0;
                                         scopes.removeLast().bubbleUpdates();
                                     }
                                 }
@@ -367,10 +422,17 @@ public class TypeInferencingVisitorWithRequestor extends ClassCodeVisitorSupport
                 for (IMember member : members) {
                     switch (member.getElementType()) {
                     case IJavaElement.METHOD:
-                        visitJDT((IMethod) member, requestor);
+                        if (isInRegion(member)) {
+                            visitJDT((IMethod) member, requestor);
+                        }
                         break;
                     case IJavaElement.TYPE:
-                        visitJDT((IType) member, requestor);
+                        boolean outsideRegion0 = enterRegion(member);
+                        try {
+                            visitJDT((IType) member, requestor);
+                        } finally {
+                            outsideRegion = outsideRegion0;
+                        }
                         break;
                     }
                 }
@@ -382,14 +444,16 @@ public class TypeInferencingVisitorWithRequestor extends ClassCodeVisitorSupport
                     List<MethodNode> traitMethods = node.redirect().getNodeMetaData("trait.methods");
                     if (isNotEmpty(traitMethods)) {
                         for (MethodNode method : traitMethods) {
-                            visitMethodInternal(method);
+                            if (isInRegion(method)) {
+                                visitMethodInternal(method);
+                            }
                         }
                     }
                 }
 
                 // visit relocated @Memoized method bodies
                 for (MethodNode method : node.getMethods()) {
-                    if (method.getName().startsWith("memoizedMethodPriv$")) {
+                    if (method.getName().startsWith("memoizedMethodPriv$") && isInRegion(method)) {
                         scopes.add(new VariableScope(scopes.getLast(), method, method.isStatic()));
                         enclosingDeclarationNode = method;
                         try {
@@ -495,6 +559,10 @@ public class TypeInferencingVisitorWithRequestor extends ClassCodeVisitorSupport
     @Override
     public void visitImports(final ModuleNode node) {
         for (ImportNode imp : GroovyUtils.getAllImportNodes(node)) {
+            if (!isInRegion(imp)) {
+                assignmentStorer.storeImport(imp, scopes.getLast());
+                continue;
+            }
             IJavaElement oldEnclosingElement = enclosingElement;
 
             visitAnnotations(imp);
@@ -1960,7 +2028,7 @@ public class TypeInferencingVisitorWithRequestor extends ClassCodeVisitorSupport
 
     private boolean handleRequestor(final Expression node, final ClassNode primaryType, final TypeLookupResult result) {
         result.enclosingAssignment = enclosingAssignment;
-        VisitStatus status = requestor.acceptASTNode(node, result, enclosingElement);
+        VisitStatus status = notifyRequestor(node, requestor, result);
         VariableScope scope = scopes.getLast();
         scope.setMethodCallArgumentTypes(null);
         scope.setMethodCallGenericsTypes(null);
@@ -2638,7 +2706,43 @@ public class TypeInferencingVisitorWithRequestor extends ClassCodeVisitorSupport
         return result.resolveTypeParameterization(objExprType, isStatic);
     }
 
+    /**
+     * @return {@code true} if no region was given or if {@code node} has no source position or overlaps the region
+     */
+    private boolean isInRegion(final ASTNode node) {
+        return (regionEnd < 0 || node == null || node.getEnd() < 1 || (node.getStart() <= regionEnd && node.getEnd() >= regionStart));
+    }
+
+    /**
+     * Suppresses requestor callbacks if {@code node} is outside of the region.
+     *
+     * @return the previous setting, to be restored when the node is complete
+     */
+    private boolean enterRegion(final ASTNode node) {
+        boolean outsideRegion0 = outsideRegion;
+        outsideRegion = outsideRegion0 || !isInRegion(node);
+        return outsideRegion0;
+    }
+
+    private boolean enterRegion(final IMember member) throws JavaModelException {
+        boolean outsideRegion0 = outsideRegion;
+        outsideRegion = outsideRegion0 || !isInRegion(member);
+        return outsideRegion0;
+    }
+
+    private boolean isInRegion(final IMember member) throws JavaModelException {
+        if (regionEnd < 0) {
+            return true;
+        }
+        ISourceRange range = member.getSourceRange();
+        return (range == null || range.getOffset() < 0 || range.getLength() < 1 ||
+            (range.getOffset() <= regionEnd && range.getOffset() + range.getLength() >= regionStart));
+    }
+
     private VisitStatus notifyRequestor(final ASTNode node, final ITypeRequestor requestor, final TypeLookupResult result) {
+        if (outsideRegion) {
+            return VisitStatus.CONTINUE;
+        }
         // result is never null because SimpleTypeLookup always returns non-null
         return requestor.acceptASTNode(node, result, enclosingElement);
     }
@@ -2673,7 +2777,7 @@ public class TypeInferencingVisitorWithRequestor extends ClassCodeVisitorSupport
      * necessary because a non-default working copy owner implies that this may be a search related to refactoring and therefore,
      * the ModuleNode must be based on the most recent working copies.
      */
-    private static ModuleNodeInfo createModuleNode(final GroovyCompilationUnit unit) {
+    static ModuleNodeInfo createModuleNode(final GroovyCompilationUnit unit) {
         if (unit.getOwner() == null || unit.owner == DefaultWorkingCopyOwner.PRIMARY) {
             return unit.getModuleInfo(true);
         } else {
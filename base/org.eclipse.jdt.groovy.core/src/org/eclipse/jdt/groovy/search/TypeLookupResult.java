@@ -92,6 +92,14 @@ public class TypeLookupResult {
      */
     public BinaryExpression enclosingAssignment;
 
+    /**
+     * For a parameter or a reference to one, the node of the scope that declares
+     * the parameter (method, closure, for loop, catch block), or null if it was
+     * not recorded.  {@link InferredTypeTable} records it during its visit; the
+     * {@link #scope} of a replayed result is in its final state.
+     */
+    public ASTNode parameterScopeNode;
+
     /**
      * @param type the type of the expression being analyzed
      * @param declaringType the declaring type of the expression if the expression is a field, method, or type reference
@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2018 the original author or authors.
+ * Copyright 2009-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -324,7 +324,7 @@ public class TypeReferenceSearchRequestor implements ITypeRequestor {
      * refactoring wizard of "possible matches".
      */
     private boolean shouldAlwaysBeAccurate() {
-        return (requestor.getClass().getPackage().getName().indexOf("refactoring") != -1);
+        return (BufferingSearchRequestor.unwrap(requestor).getClass().getPackage().getName().indexOf("refactoring") != -1);
     }
 
     private int getAccuracy(TypeConfidence confidence) {
@@ -289,6 +289,18 @@ public class VariableScope implements Iterable<VariableScope.VariableInfo> {
         return categories;
     }
 
+    /**
+     * @return categories active in this scope other than the default categories
+     */
+    public Set<ClassNode> getNonDefaultCategoryNames() {
+        Set<ClassNode> categories = getCategoryNames();
+        Set<ClassNode> defaultCategories = getEnclosingModuleNode().getNodeMetaData(DefaultGroovyMethods.class);
+        if (categories == defaultCategories) {
+            return Collections.emptySet();
+        }
+        return categories.stream().filter(category -> !defaultCategories.contains(category)).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
     private boolean isCategoryBeingDeclared() {
         return (categoryBeingDeclared != null);
     }
@@ -115,6 +115,7 @@ import org.junit.runners.Suite
     org.codehaus.groovy.eclipse.refactoring.test.formatter.FormatterPreferencesTests,
     org.codehaus.groovy.eclipse.refactoring.test.formatter.GroovyFormatterTests,
     org.codehaus.groovy.eclipse.refactoring.test.formatter.GroovyDocumentScannerTests,
+    org.codehaus.groovy.eclipse.refactoring.test.formatter.MinimalTextEditsTests,
     org.codehaus.groovy.eclipse.refactoring.test.formatter.SemicolonRemoverTests,
     org.codehaus.groovy.eclipse.refactoring.test.formatter.WhitespaceRemoverTests,
     org.codehaus.groovy.eclipse.refactoring.test.rename.RenameFieldTests,
@@ -63,6 +63,7 @@ import org.junit.runners.Suite
 
     // Location tests
     org.eclipse.jdt.core.groovy.tests.locations.ASTNodeSourceLocationsTests,
+    org.eclipse.jdt.core.groovy.tests.locations.IncrementalParseTests,
     org.eclipse.jdt.core.groovy.tests.locations.LocationSupportTests,
     org.eclipse.jdt.core.groovy.tests.locations.SourceLocationsTests,
 
@@ -89,6 +89,20 @@ final class InferencingCompletionTests extends CompletionTestSuite {
         proposalExists(proposals, 'startsWith', 2)
     }
 
+    @Test
+    void testInferenceOfFieldInitializer() {
+        String contents = '''\
+            |class C {
+            |  def x = "abc"
+            |  void m() {
+            |    x.st
+            |  }
+            |}
+            |'''.stripMargin()
+        ICompletionProposal[] proposals = createProposalsAtOffset(contents, getIndexOf(contents, 'x.st'))
+        proposalExists(proposals, 'startsWith', 2)
+    }
+
     @Test
     void testInferenceInClosure() {
         ICompletionProposal[] proposals = createProposalsAtOffset(CONTENTS_CLOSURE, getIndexOf(CONTENTS_CLOSURE, 'writer.clos'))
@@ -1,11 +1,11 @@
 /*
- * Copyright 2009-2019 the original author or authors.
+ * Copyright 2009-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
  * You may obtain a copy of the License at
  *
- *     http://www.apache.org/licenses/LICENSE-2.0
+ *     https://www.apache.org/licenses/LICENSE-2.0
  *
  * Unless required by applicable law or agreed to in writing, software
  * distributed under the License is distributed on an "AS IS" BASIS,
@@ -62,6 +62,40 @@ final class GroovyDocumentScannerTests {
         }
     }
 
+    /**
+     * Makes a source of 100 lines, so that changes to {@code lines} are
+     * several checkpoints apart.
+     */
+    private static String makeSource(Map<Integer, String> lines) {
+        (0..<100).collect { lines[it] ?: "def v$it = \"\${v} $it\" + f($it)" }.join('\n') + '\n'
+    }
+
+    /**
+     * Replaces text in the document and checks that the tokens updated by the
+     * scanner are the same as the tokens of a new scanner.
+     */
+    private void assertRescan(GroovyDocumentScanner scanner, int offset, int length, String text) {
+        List<Token> before = new ArrayList<>(scanner.getTokens(0, editDoc.length))
+        def positions = before.collect(this.&describe)
+
+        editDoc.replace(offset, length, text)
+        List<Token> incremental = scanner.getTokens(0, editDoc.length)
+        GroovyDocumentScanner fullScanner = new GroovyDocumentScanner(new Document(editDoc.get()))
+        List<Token> full = fullScanner.getTokens(0, editDoc.length)
+        fullScanner.dispose()
+
+        assertEquals(full.size(), incremental.size())
+        for (int i = 0; i < full.size(); i++) {
+            assertEquals("token $i".toString(), describe(full[i]), describe(incremental[i]))
+        }
+        // tokens may be held by callers; the scanner must not move them
+        assertEquals(positions, before.collect(this.&describe))
+    }
+
+    private static List describe(Token token) {
+        [token.type, token.text, token.line, token.column, token.lineLast, token.columnLast]
+    }
+
     //
 
     @Test
@@ -150,4 +184,50 @@ final class GroovyDocumentScannerTests {
         assertTokens(["def", "a", "=", "3", "+", "4", "<newline>"], tokens)
         scanner.dispose()
     }
+
+    @Test
+    void testRescanOpenAndCloseString() {
+        makeEditor(makeSource((20): "def s = 1 //'''", (60): "def t = 2 //'''"))
+        GroovyDocumentScanner scanner = new GroovyDocumentScanner(document)
+        int offset = editDoc.get().indexOf("//'''")
+
+        assertRescan(scanner, offset, 2, '')
+        assertRescan(scanner, offset, 0, '//')
+        scanner.dispose()
+    }
+
+    @Test
+    void testRescanOpenAndCloseGString() {
+        makeEditor(makeSource((20): 'def s = 1 //"""', (60): 'def t = 2 //"""'))
+        GroovyDocumentScanner scanner = new GroovyDocumentScanner(document)
+        int offset = editDoc.get().indexOf('//"""')
+
+        assertRescan(scanner, offset, 2, '')
+        assertRescan(scanner, offset, 0, '//')
+        scanner.dispose()
+    }
+
+    @Test
+    void testRescanOpenAndCloseParen() {
+        makeEditor(makeSource((20): 'def p = f //(', (60): '//)'))
+        GroovyDocumentScanner scanner = new GroovyDocumentScanner(document)
+        int open = editDoc.get().indexOf('//('), close = editDoc.get().indexOf('//)')
+
+        assertRescan(scanner, open, 2, '')
+        assertRescan(scanner, close - 2, 2, '')
+        assertRescan(scanner, open, 0, '//')
+        assertRescan(scanner, close, 0, '//')
+        scanner.dispose()
+    }
+
+    @Test
+    void testRescanLinesAddedAndRemoved() {
+        makeEditor(makeSource([:]))
+        GroovyDocumentScanner scanner = new GroovyDocumentScanner(document)
+        int offset = editDoc.getLineOffset(30)
+
+        assertRescan(scanner, offset, 0, 'def w = 1\ndef x = 2\n')
+        assertRescan(scanner, offset, editDoc.getLineOffset(35) - offset, '')
+        scanner.dispose()
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2009-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.refactoring.test.formatter
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertFalse
+import static org.junit.Assert.assertTrue
+
+import java.lang.reflect.Method
+
+import org.codehaus.groovy.eclipse.refactoring.formatter.DefaultGroovyFormatter
+import org.codehaus.groovy.eclipse.refactoring.formatter.FormatterPreferencesOnStore
+import org.eclipse.jface.text.Document
+import org.eclipse.jface.text.IRegion
+import org.eclipse.jface.text.TextSelection
+import org.eclipse.text.edits.MultiTextEdit
+import org.eclipse.text.edits.TextEdit
+import org.junit.Test
+
+final class MinimalTextEditsTests {
+
+    private static TextEdit createEdits(String original, String formatted) {
+        Method create = DefaultGroovyFormatter.classLoader
+            .loadClass('org.codehaus.groovy.eclipse.refactoring.formatter.MinimalTextEdits')
+            .getDeclaredMethod('create', String, String)
+        create.accessible = true
+        create.invoke(null, original, formatted)
+    }
+
+    private static String apply(TextEdit edit, String text) {
+        def document = new Document(text)
+        edit.apply(document)
+        document.get()
+    }
+
+    @Test
+    void testUnchangedInput() {
+        String text = 'class A {\n    def x = 1\n}\n'
+        TextEdit edit = createEdits(text, text)
+
+        assertTrue(edit instanceof MultiTextEdit)
+        assertFalse(edit.hasChildren())
+    }
+
+    @Test
+    void testWhitespaceChanges() {
+        String original = 'class A {\ndef x=1\n  def y = 2\n}\n'
+        String formatted = 'class A {\n    def x = 1\n    def y = 2\n}\n'
+        TextEdit edit = createEdits(original, formatted)
+
+        assertEquals(formatted, apply(edit, original))
+        // each edit inserts or removes blanks only
+        edit.children.each {
+            assertTrue(original.substring(it.offset, it.exclusiveEnd).trim().isEmpty())
+        }
+    }
+
+    @Test
+    void testSelectionFormat() {
+        String original = 'class A {\ndef x() {\nprint 1\nprint 2\nprint 3\n}\n}\n'
+        def document = new Document(original)
+        IRegion line = document.getLineInformation(3) // 'print 2'
+
+        def formatter = new DefaultGroovyFormatter(new TextSelection(document, line.offset, line.length),
+            document, new FormatterPreferencesOnStore(null), false)
+        TextEdit edit = formatter.format()
+
+        assertTrue(edit.hasChildren())
+        edit.children.each {
+            assertTrue(it.offset >= line.offset && it.exclusiveEnd <= line.offset + line.length)
+        }
+
+        edit.apply(document)
+        assertEquals(original.substring(0, line.offset), document.get().substring(0, line.offset))
+        assertTrue(document.get().endsWith(original.substring(line.offset + line.length)))
+        assertEquals('print 2', document.get(line.offset, document.length - original.length() + line.length).trim())
+    }
+
+    @Test
+    void testManyChangedWords() {
+        // 20 inserted words and 1200 replaced words are over 2000 differences
+        def original = new StringBuilder(), formatted = new StringBuilder()
+        20.times {
+            formatted << "inserted$it "
+        }
+        3000.times {
+            original << "word$it "
+            formatted << (it >= 1000 && it < 2200 ? "other$it " : "word$it ")
+        }
+        TextEdit edit = createEdits(original.toString(), formatted.toString())
+
+        assertEquals(formatted.toString(), apply(edit, original.toString()))
+        // the words after the insertion are beyond the lookahead of the greedy
+        // match, so a single edit covers the start through the replaced words
+        assertEquals(1, edit.children.length)
+        assertEquals(0, edit.children[0].offset)
+        assertEquals(original.indexOf('word2199') + 'word'.length(), edit.children[0].exclusiveEnd)
+    }
+}
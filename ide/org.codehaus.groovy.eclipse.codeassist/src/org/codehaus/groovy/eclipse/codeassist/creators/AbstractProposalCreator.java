@@ -53,9 +53,20 @@ public abstract class AbstractProposalCreator implements IProposalCreator {
     protected Set<String> favoriteStaticMembers;
 
     public void setNameMatchingStrategy(BiPredicate<String, String> strategy) {
+        setNameMatchingStrategy(strategy, false);
+    }
+
+    /**
+     * @param isAnchored {@code true} if {@code strategy} matches a name only if
+     *     it starts with the first character of the pattern (prefix or camel-case
+     *     matching), which allows creators to skip names that start otherwise
+     */
+    public void setNameMatchingStrategy(BiPredicate<String, String> strategy, boolean isAnchored) {
         this.matcher = strategy;
+        this.isMatcherAnchored = isAnchored;
     }
     protected BiPredicate<String, String> matcher = ProposalUtils::looselyMatches;
+    protected boolean isMatcherAnchored = true;
 
     //--------------------------------------------------------------------------
 
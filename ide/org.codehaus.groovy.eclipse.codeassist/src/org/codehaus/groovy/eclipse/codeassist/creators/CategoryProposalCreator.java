@@ -61,31 +61,32 @@ public class CategoryProposalCreator extends AbstractProposalCreator {
             return Collections.emptyList();
         }
 
-        DGMProposalFilter filter = new DGMProposalFilter();
+        DGMProposalFilter filter = null;
         List<IGroovyProposal> proposals = new ArrayList<>();
         for (ClassNode category : categories) {
             boolean isDefaultCategory = isDefaultCategory(category);
-            for (MethodNode method : category.getAllDeclaredMethods()) {
+            if (isDefaultCategory && filter == null) {
+                filter = new DGMProposalFilter();
+            }
+            for (CategoryProposalIndex.Entry entry : CategoryProposalIndex.of(category).getCandidates(prefix, isMatcherAnchored)) {
+                MethodNode method = entry.method;
                 // check for DGMs filtered by deprecation or user preference
-                if (isDefaultCategory && (GroovyUtils.isDeprecated(method) || filter.isFiltered(method))) {
+                if (isDefaultCategory && (entry.deprecated || filter.isFiltered(method))) {
                     continue;
                 }
                 String methodName = method.getName();
-                if (method.isStatic() && method.isPublic()) {
-                    Parameter[] params = method.getParameters();
 
-                    if (matcher.test(prefix, methodName)) {
-                        if (params.length > 0 && GroovyUtils.isAssignable(selfType, params[0].getType())) {
-                            proposals.add(new CategoryMethodProposal(method));
-                        }
+                if (matcher.test(prefix, methodName)) {
+                    if (CategoryProposalIndex.isSelfTypeAssignable(selfType, entry)) {
+                        proposals.add(new CategoryMethodProposal(method));
                     }
+                }
 
-                    if (params.length == 1 && findLooselyMatchedAccessorKind(prefix, methodName, true).isAccessorKind(method, true) &&
-                            hasNoField(selfType, methodName) && GroovyUtils.isAssignable(selfType, params[0].getType()) &&
-                            (isDefaultCategory || !methodName.startsWith("is"))) { // GROOVY-5245
-                        // add property variant of accessor method
-                        proposals.add(new CategoryPropertyProposal(method));
-                    }
+                if (entry.propertyName != null && matcher.test(prefix, entry.propertyName) &&
+                        hasNoField(selfType, methodName) && CategoryProposalIndex.isSelfTypeAssignable(selfType, entry) &&
+                        (isDefaultCategory || !methodName.startsWith("is"))) { // GROOVY-5245
+                    // add property variant of accessor method
+                    proposals.add(new CategoryPropertyProposal(method));
                 }
             }
         }
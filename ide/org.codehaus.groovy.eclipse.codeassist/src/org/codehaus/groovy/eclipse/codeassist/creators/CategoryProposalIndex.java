@@ -0,0 +1,195 @@
+/*
+ * Copyright 2009-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.codeassist.creators;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.Parameter;
+import org.codehaus.groovy.eclipse.codeassist.ProposalUtils;
+import org.eclipse.jdt.groovy.core.util.GroovyUtils;
+import org.eclipse.jdt.groovy.search.AccessorSupport;
+
+/**
+ * Index of the category methods of one category class that may be proposed by
+ * content assist: public static methods with a self-type parameter.  Built once
+ * per category class node and kept in its metadata, so the default categories
+ * (DGM, DGSM and the extension modules) are indexed once per class node.
+ * <p>
+ * Entries are sorted by method name and, for accessors, by property name.  For
+ * name matching strategies that require the first character of the prefix
+ * (prefix and camel-case matching) only the entries that start with it are
+ * returned.  Self-type checks are memoised for the last self type queried.
+ */
+final class CategoryProposalIndex {
+
+    static CategoryProposalIndex of(ClassNode category) {
+        return category.getNodeMetaData(CategoryProposalIndex.class, x -> new CategoryProposalIndex(category));
+    }
+
+    static final class Entry {
+        final int ordinal;
+        final MethodNode method;
+        final boolean deprecated;
+        /** Mock field name if the method can be proposed as a property; otherwise {@code null}. */
+        final String propertyName;
+        /** Identifies the results of {@link GroovyUtils#isAssignable} for the self-type parameter. */
+        final String selfTypeKey;
+
+        Entry(int ordinal, MethodNode method) {
+            this.ordinal = ordinal;
+            this.method = method;
+            this.deprecated = GroovyUtils.isDeprecated(method);
+
+            String name = method.getName();
+            AccessorSupport accessor = AccessorSupport.create(name, true);
+            if (method.getParameters().length == 1 && accessor.isAccessor() && accessor.isAccessorKind(method, true)) {
+                this.propertyName = ProposalUtils.createMockFieldName(name);
+            } else {
+                this.propertyName = null;
+            }
+            this.selfTypeKey = assignabilityKey(method.getParameters()[0].getType());
+        }
+    }
+
+    private final List<Entry> entries;
+
+    private final Entry[] byMethodName, byPropertyName;
+
+    private CategoryProposalIndex(ClassNode category) {
+        List<Entry> entries = new ArrayList<>();
+        for (MethodNode method : category.getAllDeclaredMethods()) {
+            if (method.isStatic() && method.isPublic() && method.getParameters().length > 0) {
+                entries.add(new Entry(entries.size(), method));
+            }
+        }
+        this.entries = Collections.unmodifiableList(entries);
+        byMethodName = sorted(entries, entry -> entry.method.getName());
+        byPropertyName = sorted(entries, entry -> entry.propertyName);
+    }
+
+    /**
+     * @param anchored {@code true} if a name can match {@code prefix} only if
+     *     it starts with the first character of {@code prefix}
+     * @return entries whose method or property name may match {@code prefix}
+     *     in declaration order
+     */
+    List<Entry> getCandidates(String prefix, boolean anchored) {
+        if (!anchored || prefix.isEmpty()) {
+            return entries;
+        }
+        char first = prefix.charAt(0);
+        List<Entry> candidates = new ArrayList<>();
+        candidates.addAll(range(byMethodName, first, entry -> entry.method.getName()));
+        candidates.addAll(range(byPropertyName, first, entry -> entry.propertyName));
+        return inDeclarationOrder(candidates);
+    }
+
+    private static List<Entry> inDeclarationOrder(List<Entry> entries) {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(BY_ORDINAL);
+        // an entry may be in the method and property ranges
+        for (int i = sorted.size() - 1; i > 0; i -= 1) {
+            if (sorted.get(i) == sorted.get(i - 1)) {
+                sorted.remove(i);
+            }
+        }
+        return sorted;
+    }
+
+    private static List<Entry> range(Entry[] entries, char first, Function<Entry, String> name) {
+        int from = lowerBound(entries, first, name), to = lowerBound(entries, (char) (first + 1), name);
+        if (first == Character.MAX_VALUE) to = entries.length;
+        return Arrays.asList(entries).subList(from, to);
+    }
+
+    /**
+     * @return index of the first entry whose name is not less than {@code c}
+     */
+    private static int lowerBound(Entry[] entries, char c, Function<Entry, String> name) {
+        String key = String.valueOf(c);
+        int lo = 0, hi = entries.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (name.apply(entries[mid]).compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static Entry[] sorted(List<Entry> entries, Function<Entry, String> name) {
+        return entries.stream().filter(entry -> name.apply(entry) != null).sorted(Comparator.comparing(name)).toArray(Entry[]::new);
+    }
+
+    private static final Comparator<Entry> BY_ORDINAL = Comparator.comparingInt(entry -> entry.ordinal);
+
+    //--------------------------------------------------------------------------
+
+    /**
+     * {@link GroovyUtils#isAssignable} depends on the erasure of the target type
+     * and, for type parameters, on their bounds; targets with the same key are
+     * assignable from the same source types.
+     */
+    private static String assignabilityKey(ClassNode type) {
+        if (type.isArray()) {
+            return "[" + assignabilityKey(type.getComponentType());
+        }
+        if (!type.isGenericsPlaceHolder()) {
+            return type.getName();
+        }
+        StringBuilder key = new StringBuilder("?").append(type.redirect().getName());
+        for (ClassNode bound : GroovyUtils.getTypeParameterBounds(type)) {
+            key.append('&').append(assignabilityKey(bound));
+        }
+        return key.toString();
+    }
+
+    private static final class Memo {
+        final Reference<ClassNode> selfType; // do not retain the module of a source type
+        final Map<String, Boolean> results = new ConcurrentHashMap<>();
+
+        Memo(ClassNode selfType) {
+            this.selfType = new WeakReference<>(selfType);
+        }
+    }
+
+    private static volatile Memo memo;
+
+    /**
+     * @return {@code true} if the method of {@code entry} may be called on {@code selfType}
+     */
+    static boolean isSelfTypeAssignable(ClassNode selfType, Entry entry) {
+        Memo m = memo;
+        if (m == null || m.selfType.get() != selfType) {
+            memo = m = new Memo(selfType);
+        }
+        Parameter self = entry.method.getParameters()[0];
+        return m.results.computeIfAbsent(entry.selfTypeKey, key -> GroovyUtils.isAssignable(selfType, self.getType()));
+    }
+}
@@ -130,7 +130,7 @@ public class StatementAndExpressionCompletionProcessor extends AbstractGroovyCom
 
         // if completion node is null, then it is likely because of a syntax error
         if (completionNode != null) {
-            visitor.visitCompilationUnit(requestor);
+            visitor.visitCompilationUnit(requestor, context.completionLocation, 0);
         }
 
         List<IGroovyProposal> groovyProposals = new ArrayList<>();
@@ -313,7 +313,7 @@ public class StatementAndExpressionCompletionProcessor extends AbstractGroovyCom
                 ((AbstractProposalCreator) creator).setFavoriteStaticMembers(context.getFavoriteStaticMembers());
                 ((AbstractProposalCreator) creator).setNameMatchingStrategy((String pattern, String candidate) -> {
                     return ProposalUtils.matches(pattern, candidate, options.camelCaseMatch, options.substringMatch);
-                });
+                }, !options.substringMatch);
             }
             String completionExpression = context.getPerceivedCompletionExpression();
             groovyProposals.addAll(
@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2019 the original author or authors.
+ * Copyright 2009-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -81,7 +81,7 @@ public class CodeSelectHelper implements ICodeSelectHelper {
 
                     CodeSelectRequestor requestor = createRequestor(node, region, select, unit);
                     TypeInferencingVisitorWithRequestor visitor = new TypeInferencingVisitorFactory().createVisitor(unit);
-                    visitor.visitCompilationUnit(requestor);
+                    visitor.visitCompilationUnit(requestor, select.getOffset(), select.getLength());
 
                     IJavaElement element = requestor.getRequestedElement();
                     if (element != null) {
@@ -124,7 +124,7 @@ public class CodeSelectHelper implements ICodeSelectHelper {
 
                     CodeSelectRequestor requestor = createRequestor(node, region, select, unit);
                     TypeInferencingVisitorWithRequestor visitor = new TypeInferencingVisitorFactory().createVisitor(unit);
-                    visitor.visitCompilationUnit(requestor);
+                    visitor.visitCompilationUnit(requestor, select.getOffset(), select.getLength());
                     return requestor.getRequestedNode();
                 }
             } finally {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2017 the original author or authors.
+ * Copyright 2009-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -43,8 +43,54 @@ public class DSLDStore {
     private final Map<IPointcut, List<IContributionGroup>> pointcutContributionMap = new LinkedHashMap<>();
     /** Maps keys (such as script names) to the pointcuts they produce. */
     private final Map<IStorage, Set<IPointcut>> keyContextMap = new HashMap<>();
+    /** Snapshot of {@link #pointcutContributionMap} for lookups; discarded by any change to the map. */
+    private volatile PointcutIndex pointcutIndex;
+
+    private PointcutIndex getPointcutIndex() {
+        PointcutIndex index = pointcutIndex;
+        if (index == null) {
+            synchronized (pointcutContributionMap) {
+                index = pointcutIndex;
+                if (index == null) {
+                    pointcutIndex = index = new PointcutIndex(pointcutContributionMap);
+                }
+            }
+        }
+        return index;
+    }
+
+    /** Contribution groups held back by {@link #deferContributions} on the current thread. */
+    private static final ThreadLocal<List<Runnable>> deferredContributions = new ThreadLocal<>();
+
+    /**
+     * Runs {@code action}, holding back the contribution groups it adds to any
+     * store, so that scripts executed at the same time can register them in a
+     * fixed order.
+     *
+     * @return action that adds the contribution groups in the order received
+     */
+    public static Runnable deferContributions(Runnable action) {
+        List<Runnable> deferred = new ArrayList<>();
+        List<Runnable> saved = deferredContributions.get();
+        deferredContributions.set(deferred);
+        try {
+            action.run();
+        } finally {
+            if (saved != null) {
+                deferredContributions.set(saved);
+            } else {
+                deferredContributions.remove();
+            }
+        }
+        return () -> deferred.forEach(Runnable::run);
+    }
 
     public void addContributionGroup(IPointcut pointcut, IContributionGroup contribution) {
+        List<Runnable> deferred = deferredContributions.get();
+        if (deferred != null) {
+            deferred.add(() -> addContributionGroup(pointcut, contribution));
+            return;
+        }
         synchronized (pointcutContributionMap) {
             List<IContributionGroup> contributions = pointcutContributionMap.get(pointcut);
             if (contributions == null) {
@@ -52,6 +98,7 @@ public class DSLDStore {
                 pointcutContributionMap.put(pointcut, contributions);
             }
             contributions.add(contribution);
+            pointcutIndex = null;
         }
 
         IStorage identifier = pointcut.getContainerIdentifier();
@@ -78,6 +125,7 @@ public class DSLDStore {
                 for (IPointcut pointcut : pointcuts) {
                     pointcutContributionMap.remove(pointcut);
                 }
+                pointcutIndex = null;
             }
         }
     }
@@ -88,6 +136,7 @@ public class DSLDStore {
         }
         synchronized (pointcutContributionMap) {
             pointcutContributionMap.clear();
+            pointcutIndex = null;
         }
     }
 
@@ -102,11 +151,9 @@ public class DSLDStore {
      */
     public DSLDStore createSubStore(GroovyDSLDContext pattern) {
         DSLDStore subStore = new DSLDStore();
-        synchronized (pointcutContributionMap) {
-            for (Map.Entry<IPointcut, List<IContributionGroup>> entry : pointcutContributionMap.entrySet()) {
-                if (entry.getKey().fastMatch(pattern)) {
-                    subStore.addAllContributions(entry.getKey(), entry.getValue());
-                }
+        for (PointcutIndex.Entry entry : getPointcutIndex().getEntries()) {
+            if (entry.pointcut.fastMatch(pattern)) {
+                subStore.addAllContributions(entry.pointcut, entry.contributions);
             }
         }
         return subStore;
@@ -116,10 +163,11 @@ public class DSLDStore {
         synchronized (pointcutContributionMap) {
             List<IContributionGroup> existing = pointcutContributionMap.get(pointcut);
             if (existing == null) {
-                pointcutContributionMap.put(pointcut, contributions);
+                pointcutContributionMap.put(pointcut, new ArrayList<>(contributions));
             } else {
                 existing.addAll(contributions);
             }
+            pointcutIndex = null;
         }
     }
 
@@ -138,16 +186,14 @@ public class DSLDStore {
      */
     public List<IContributionElement> findContributions(GroovyDSLDContext pattern, Set<String> disabledScripts) {
         List<IContributionElement> elts = new ArrayList<>();
-        synchronized (pointcutContributionMap) {
-            for (Map.Entry<IPointcut, List<IContributionGroup>> entry : pointcutContributionMap.entrySet()) {
-                IPointcut pointcut = entry.getKey();
-                if (!disabledScripts.contains(DSLDStore.toUniqueString(pointcut.getContainerIdentifier()))) {
-                    pattern.resetBinding();
-                    Collection<?> results = pointcut.matches(pattern, pattern.getCurrentType());
-                    if (results != null) {
-                        for (IContributionGroup group : entry.getValue()) {
-                            elts.addAll(group.getContributions(pattern, pattern.getCurrentBinding()));
-                        }
+        for (PointcutIndex.Entry entry : getPointcutIndex().getCandidates(pattern)) {
+            IPointcut pointcut = entry.pointcut;
+            if (!disabledScripts.contains(DSLDStore.toUniqueString(pointcut.getContainerIdentifier()))) {
+                pattern.resetBinding();
+                Collection<?> results = pointcut.matches(pattern, pattern.getCurrentType());
+                if (results != null) {
+                    for (IContributionGroup group : entry.contributions) {
+                        elts.addAll(group.getContributions(pattern, pattern.getCurrentBinding()));
                     }
                 }
             }
@@ -26,6 +26,7 @@ import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import org.codehaus.groovy.eclipse.dsl.script.DSLDScriptExecutor;
 import org.codehaus.jdt.groovy.model.GroovyNature;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.jobs.Job;
@@ -53,10 +54,12 @@ public class DSLDStoreManager {
 
     public void removeDSLDStore(final IProject project) {
         dsldStores.remove(project.getName());
+        DSLDScriptExecutor.clearCache(project.getName());
     }
 
     public void reset() {
         dsldStores.clear();
+        DSLDScriptExecutor.clearCache();
     }
 
     //--------------------------------------------------------------------------
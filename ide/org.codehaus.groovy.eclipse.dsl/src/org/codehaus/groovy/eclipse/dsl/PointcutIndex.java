@@ -0,0 +1,141 @@
+/*
+ * Copyright 2009-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.dsl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.eclipse.dsl.contributions.IContributionGroup;
+import org.codehaus.groovy.eclipse.dsl.pointcuts.GroovyDSLDContext;
+import org.codehaus.groovy.eclipse.dsl.pointcuts.IPointcut;
+import org.codehaus.groovy.eclipse.dsl.pointcuts.impl.AndPointcut;
+import org.codehaus.groovy.eclipse.dsl.pointcuts.impl.CurrentTypePointcut;
+import org.codehaus.groovy.eclipse.dsl.pointcuts.impl.EnclosingCallNamePointcut;
+import org.eclipse.jdt.groovy.search.VariableScope;
+
+/**
+ * Immutable snapshot of the pointcuts of a {@link DSLDStore} bucketed by the
+ * cheap discriminators that a pointcut requires of every match.  Only the
+ * pointcuts whose discriminator is satisfied by a context (and those with no
+ * discriminator) are returned as candidates for full evaluation.
+ * <p>
+ * Discriminators are taken from a top-level pointcut or from the conjuncts of
+ * a top-level {@code and}:
+ * <ul>
+ * <li>{@code currentType("name")} or {@code currentType(Type)}
+ * <li>{@code enclosingCallName("name")}
+ * </ul>
+ */
+final class PointcutIndex {
+
+    static final class Entry {
+        final int ordinal;
+        final IPointcut pointcut;
+        final List<IContributionGroup> contributions;
+
+        Entry(int ordinal, IPointcut pointcut, List<IContributionGroup> contributions) {
+            this.ordinal = ordinal;
+            this.pointcut = pointcut;
+            this.contributions = contributions;
+        }
+    }
+
+    private static final Comparator<Entry> BY_ORDINAL = Comparator.comparingInt(entry -> entry.ordinal);
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final List<Entry> unindexed = new ArrayList<>();
+    private final Map<String, List<Entry>> byCurrentType = new HashMap<>();
+    private final Map<String, List<Entry>> byEnclosingCall = new HashMap<>();
+
+    PointcutIndex(Map<IPointcut, List<IContributionGroup>> pointcutContributionMap) {
+        for (Map.Entry<IPointcut, List<IContributionGroup>> mapEntry : pointcutContributionMap.entrySet()) {
+            Entry entry = new Entry(entries.size(), mapEntry.getKey(), Collections.unmodifiableList(new ArrayList<>(mapEntry.getValue())));
+            entries.add(entry);
+
+            String key = findDiscriminator(entry.pointcut, CurrentTypePointcut.class);
+            if (key != null) {
+                byCurrentType.computeIfAbsent(key, x -> new ArrayList<>()).add(entry);
+            } else if ((key = findDiscriminator(entry.pointcut, EnclosingCallNamePointcut.class)) != null) {
+                byEnclosingCall.computeIfAbsent(key, x -> new ArrayList<>()).add(entry);
+            } else {
+                unindexed.add(entry);
+            }
+        }
+    }
+
+    /**
+     * @return all entries in the order they were added to the store
+     */
+    List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return entries that may match the given context in the order they were added to the store
+     */
+    List<Entry> getCandidates(GroovyDSLDContext pattern) {
+        ClassNode currentType = pattern.getCurrentType();
+        VariableScope currentScope = pattern.getCurrentScope();
+        if (currentType == null || currentScope == null) {
+            return entries;
+        }
+
+        List<Entry> candidates = new ArrayList<>(unindexed);
+        candidates.addAll(byCurrentType.getOrDefault(currentType.getName(), Collections.emptyList()));
+        if (!byEnclosingCall.isEmpty()) {
+            Set<String> names = new HashSet<>();
+            for (VariableScope.CallAndType callAndType : currentScope.getAllEnclosingMethodCallExpressions()) {
+                String name = callAndType.call.getMethodAsString();
+                if (name != null && names.add(name)) {
+                    candidates.addAll(byEnclosingCall.getOrDefault(name, Collections.emptyList()));
+                }
+            }
+        }
+        if (candidates.size() != unindexed.size()) {
+            candidates.sort(BY_ORDINAL);
+        }
+        return candidates;
+    }
+
+    private static String findDiscriminator(IPointcut pointcut, Class<? extends IPointcut> kind) {
+        if (pointcut instanceof AndPointcut) {
+            for (Object argument : pointcut.getArgumentValues()) {
+                if (argument instanceof IPointcut) {
+                    String key = findDiscriminator((IPointcut) argument, kind);
+                    if (key != null) {
+                        return key;
+                    }
+                }
+            }
+        } else if (kind.isInstance(pointcut)) {
+            Object argument = pointcut.getFirstArgument();
+            if (argument instanceof String) {
+                return (String) argument;
+            }
+            if (argument instanceof Class && kind == CurrentTypePointcut.class) {
+                return ((Class<?>) argument).getName();
+            }
+        }
+        return null;
+    }
+}
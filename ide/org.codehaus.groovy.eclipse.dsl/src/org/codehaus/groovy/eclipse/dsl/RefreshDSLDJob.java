@@ -22,9 +22,15 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
 
 import org.codehaus.groovy.eclipse.GroovyLogManager;
 import org.codehaus.groovy.eclipse.TraceCategory;
@@ -42,6 +48,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
@@ -53,9 +60,30 @@ import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.IParent;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.groovy.search.ReferenceIndex;
 
 public class RefreshDSLDJob extends Job {
 
+    /**
+     * Number of workers used to compile and execute DSLD scripts.  When greater
+     * than one, projects and the scripts within each project are refreshed on a
+     * bounded pool; the default of one refreshes everything on the job thread.
+     */
+    private static final int PARALLELISM = Math.max(1, Integer.getInteger("greclipse.dsld.refresh.parallelism", 1));
+
+    private static <T> Callable<T> withContextLoader(final ClassLoader contextLoader, final Callable<T> task) {
+        return () -> {
+            Thread thread = Thread.currentThread();
+            ClassLoader saved = thread.getContextClassLoader();
+            thread.setContextClassLoader(contextLoader);
+            try {
+                return task.call();
+            } finally {
+                thread.setContextClassLoader(saved);
+            }
+        };
+    }
+
     private final List<IProject> projects;
 
     /**
@@ -100,6 +128,8 @@ public class RefreshDSLDJob extends Job {
 
     @Override
     public IStatus run(final IProgressMonitor monitor) {
+        // inferred references may change with the DSLD contributions
+        ReferenceIndex.clearIfLoaded();
         try {
             if (GroovyDSLCoreActivator.getDefault().isDSLDDisabled()) {
                 if (GroovyLogManager.manager.hasLoggers()) {
@@ -112,17 +142,63 @@ public class RefreshDSLDJob extends Job {
             submon.beginTask("Refresh DSLD scripts", projects.size() * 9);
 
             List<IStatus> errorStatuses = new ArrayList<>();
-            for (IProject project : projects) {
-                IStatus res = Status.OK_STATUS;
+            if (PARALLELISM > 1) {
+                // workers only poll for cancellation; progress is reported here as each project completes
+                IProgressMonitor workerMonitor = new NullProgressMonitor() {
+                    @Override
+                    public boolean isCanceled() {
+                        return submon.isCanceled();
+                    }
+                };
+                ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+                ForkJoinPool pool = new ForkJoinPool(PARALLELISM);
                 try {
-                    res = refreshProject(project, submon.split(9));
+                    List<ForkJoinTask<IStatus>> tasks = new ArrayList<>(projects.size());
+                    for (IProject project : projects) {
+                        tasks.add(pool.submit(withContextLoader(contextLoader, () -> {
+                            try {
+                                return refreshProject(project, workerMonitor, pool);
+                            } finally {
+                                GroovyDSLCoreActivator.getDefault().getContextStoreManager().removeInProgress(project);
+                            }
+                        })));
+                    }
+                    boolean canceled = false;
+                    for (int i = 0, n = tasks.size(); i < n; i += 1) {
+                        IStatus res;
+                        try {
+                            res = tasks.get(i).join();
+                        } catch (OperationCanceledException e) {
+                            res = Status.CANCEL_STATUS;
+                        } catch (RuntimeException | LinkageError e) {
+                            res = new Status(IStatus.ERROR, GroovyDSLCoreActivator.PLUGIN_ID, "Error refreshing DSLDs for " + projects.get(i).getName(), e);
+                        }
+                        submon.worked(9);
+                        if (res.getSeverity() == IStatus.CANCEL) {
+                            canceled = true;
+                        } else if (!res.isOK()) {
+                            errorStatuses.add(res);
+                        }
+                    }
+                    if (canceled || submon.isCanceled()) {
+                        return Status.CANCEL_STATUS;
+                    }
                 } finally {
-                    GroovyDSLCoreActivator.getDefault().getContextStoreManager().removeInProgress(project);
+                    pool.shutdown();
                 }
-                if (!res.isOK()) {
-                    errorStatuses.add(res);
-                } else if (res == Status.CANCEL_STATUS) {
-                    return res;
+            } else {
+                for (IProject project : projects) {
+                    IStatus res = Status.OK_STATUS;
+                    try {
+                        res = refreshProject(project, submon.split(9), null);
+                    } finally {
+                        GroovyDSLCoreActivator.getDefault().getContextStoreManager().removeInProgress(project);
+                    }
+                    if (res.getSeverity() == IStatus.CANCEL) {
+                        return Status.CANCEL_STATUS;
+                    } else if (!res.isOK()) {
+                        errorStatuses.add(res);
+                    }
                 }
             }
 
@@ -139,7 +215,30 @@ public class RefreshDSLDJob extends Job {
         }
     }
 
-    private IStatus refreshProject(final IProject project, final IProgressMonitor monitor) {
+    /**
+     * @return error status if the script could not be executed; failures
+     *     inside the script itself are logged by {@link DSLDScriptExecutor}
+     */
+    private static IStatus refreshScript(final IProject project, final DSLDStore store, final IStorage file, final IProgressMonitor monitor) {
+        if (GroovyLogManager.manager.hasLoggers()) {
+            GroovyLogManager.manager.log(TraceCategory.DSL, "Processing " + file.getName() + " in project " + project.getName());
+        }
+        monitor.subTask("Processing " + file.getName() + " in project " + project.getName());
+
+        try {
+            store.purgeIdentifier(file);
+            DSLDScriptExecutor executor = new DSLDScriptExecutor(JavaCore.create(project));
+            executor.executeScript(file);
+            return Status.OK_STATUS;
+        } catch (RuntimeException | LinkageError e) {
+            return new Status(IStatus.ERROR, GroovyDSLCoreActivator.PLUGIN_ID, "Error executing " + file.getName() + " in project " + project.getName(), e);
+        }
+    }
+
+    /**
+     * @param pool workers for the scripts of the project or {@code null} to execute them on the calling thread
+     */
+    private IStatus refreshProject(final IProject project, final IProgressMonitor monitor, final ForkJoinPool pool) {
         String event = null;
         if (GroovyLogManager.manager.hasLoggers()) {
             GroovyLogManager.manager.log(TraceCategory.DSL, "Refreshing inferencing scripts for " + project.getName());
@@ -154,55 +253,103 @@ public class RefreshDSLDJob extends Job {
         }
         monitor.worked(1);
 
-        // purge existing
+        // find dslds
         if (GroovyLogManager.manager.hasLoggers()) {
-            GroovyLogManager.manager.log(TraceCategory.DSL, "Purging old state");
+            GroovyLogManager.manager.log(TraceCategory.DSL, "Finding inferencing DSL scripts");
         }
-        DSLDStore store = GroovyDSLCoreActivator.getDefault().getContextStoreManager().getDSLDStore(project);
-        store.purgeAll();
+        Collection<IStorage> findDSLDFiles = new DSLDResourceVisitor(project).findFiles(monitor);
 
         if (monitor.isCanceled()) {
             return Status.CANCEL_STATUS;
         }
         monitor.worked(1);
 
-        // find dslds
+        // purge scripts that are no longer present
         if (GroovyLogManager.manager.hasLoggers()) {
-            GroovyLogManager.manager.log(TraceCategory.DSL, "Finding inferencing DSL scripts");
+            GroovyLogManager.manager.log(TraceCategory.DSL, "Purging old state");
+        }
+        DSLDStore store = GroovyDSLCoreActivator.getDefault().getContextStoreManager().getDSLDStore(project);
+        Set<String> found = findDSLDFiles.stream().map(DSLDStore::toUniqueString).collect(Collectors.toSet());
+        for (IStorage identifier : store.getAllContextKeys()) {
+            if (!found.contains(DSLDStore.toUniqueString(identifier))) {
+                store.purgeIdentifier(identifier);
+            }
         }
-        Collection<IStorage> findDSLDFiles = new DSLDResourceVisitor(project).findFiles(monitor);
 
         if (monitor.isCanceled()) {
             return Status.CANCEL_STATUS;
         }
         monitor.worked(1);
 
-        // now add the rest
+        // in parallel, scripts are executed first and their contributions registered below in script order
+        Map<IStorage, ForkJoinTask<ScriptResult>> scriptTasks = new IdentityHashMap<>();
+        if (pool != null) {
+            ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+            for (IStorage file : findDSLDFiles) {
+                if (isDSLD(file)) {
+                    scriptTasks.put(file, ForkJoinTask.adapt(withContextLoader(contextLoader, () -> {
+                        ScriptResult result = new ScriptResult();
+                        if (!monitor.isCanceled()) {
+                            result.contributions = DSLDStore.deferContributions(() -> result.status = refreshScript(project, store, file, monitor));
+                        }
+                        return result;
+                    })));
+                }
+            }
+            ForkJoinTask.invokeAll(scriptTasks.values());
+        }
+
+        // now add the rest; scripts are executed again, since their contributions may depend on
+        // the classpath, but unchanged scripts reuse their compiled class (see DSLDScriptExecutor)
+        List<IStatus> scriptStatuses = new ArrayList<>();
         for (IStorage file : findDSLDFiles) {
-            if (GroovyLogManager.manager.hasLoggers()) {
-                GroovyLogManager.manager.log(TraceCategory.DSL, "Processing " + file.getName() + " in project " + project.getName());
+            if (monitor.isCanceled()) {
+                return Status.CANCEL_STATUS;
             }
-            monitor.subTask("Processing " + file.getName() + " in project " + project.getName());
 
             if (isDSLD(file)) {
-                DSLDScriptExecutor executor = new DSLDScriptExecutor(JavaCore.create(project));
-                executor.executeScript(file);
+                IStatus status;
+                if (pool != null) {
+                    ScriptResult result = scriptTasks.get(file).join();
+                    result.contributions.run();
+                    status = result.status;
+                } else {
+                    status = refreshScript(project, store, file, monitor);
+                }
+                if (!status.isOK()) {
+                    scriptStatuses.add(status);
+                }
             } else if (isSuggestionFile(file)) {
-                new SuggestionsLoader((IFile) file).loadExistingSuggestions();
-            }
+                if (GroovyLogManager.manager.hasLoggers()) {
+                    GroovyLogManager.manager.log(TraceCategory.DSL, "Processing " + file.getName() + " in project " + project.getName());
+                }
+                monitor.subTask("Processing " + file.getName() + " in project " + project.getName());
 
-            if (monitor.isCanceled()) {
-                return Status.CANCEL_STATUS;
+                new SuggestionsLoader((IFile) file).loadExistingSuggestions();
             }
         }
+        if (monitor.isCanceled()) {
+            return Status.CANCEL_STATUS;
+        }
         monitor.worked(6);
 
         if (event != null) {
             GroovyLogManager.manager.logEnd(event, TraceCategory.DSL);
         }
+        if (!scriptStatuses.isEmpty()) {
+            MultiStatus multi = new MultiStatus(GroovyDSLCoreActivator.PLUGIN_ID, 0, "Error refreshing DSLDs for " + project.getName(), null);
+            scriptStatuses.forEach(multi::add);
+            return multi;
+        }
         return Status.OK_STATUS;
     }
 
+    private static final class ScriptResult {
+        /** Registers the contributions of the script; see {@link DSLDStore#deferContributions}. */
+        Runnable contributions = () -> { };
+        IStatus status = Status.OK_STATUS;
+    }
+
     //--------------------------------------------------------------------------
 
     private class DSLDResourceVisitor implements IResourceVisitor {
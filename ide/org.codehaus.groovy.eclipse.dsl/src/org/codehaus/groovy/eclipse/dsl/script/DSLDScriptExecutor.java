@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2019 the original author or authors.
+ * Copyright 2009-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,10 +20,14 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import groovy.lang.Binding;
 import groovy.lang.Closure;
@@ -42,7 +46,9 @@ import org.eclipse.core.resources.IResourceStatus;
 import org.eclipse.core.resources.IStorage;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.jdt.core.IClasspathEntry;
 import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaModelException;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.Version;
 import org.osgi.framework.wiring.BundleWiring;
@@ -52,6 +58,63 @@ import org.osgi.framework.wiring.BundleWiring;
  */
 public class DSLDScriptExecutor {
 
+    /**
+     * Compiled script classes of a project, keyed by script path.  A script
+     * that is compiled again replaces the class compiled from its old text.
+     */
+    private static final class CompiledScripts {
+        /** Resolved classpath the classes were compiled against. */
+        final IClasspathEntry[] classpath;
+        final Map<String, CompiledScript> classes = new ConcurrentHashMap<>();
+
+        CompiledScripts(IClasspathEntry[] classpath) {
+            this.classpath = classpath;
+        }
+    }
+
+    private static final class CompiledScript {
+        /** {@link #getContentHash} of the text the class was compiled from. */
+        final String hash;
+        final Class<?> type;
+
+        CompiledScript(String hash, Class<?> type) {
+            this.hash = hash;
+            this.type = type;
+        }
+    }
+
+    /**
+     * Compiled script classes for each project.  The classes of a project are
+     * discarded when its resolved classpath changes.  Scripts are executed on
+     * every refresh; only the compilation is skipped.
+     */
+    private static final Map<String, CompiledScripts> compiledScripts = new ConcurrentHashMap<>();
+
+    public static void clearCache() {
+        compiledScripts.clear();
+    }
+
+    public static void clearCache(String projectName) {
+        compiledScripts.remove(projectName);
+    }
+
+    private static String getContentHash(String scriptText) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(scriptText.getBytes(StandardCharsets.UTF_8));
+
+            StringBuilder hash = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //--------------------------------------------------------------------------
+
     private final IJavaProject project;
     private PointcutFactory factory;
     private String scriptName;
@@ -70,19 +133,27 @@ public class DSLDScriptExecutor {
             }
             factory = new PointcutFactory(scriptFile, project.getProject());
             try {
-                GroovyClassLoader classLoader = getGroovyClassLoader();
                 String scriptText = getContents(scriptFile);
-                @SuppressWarnings("rawtypes")
-                Class scriptType = null;
-                try {
-                    scriptType = classLoader.parseClass(scriptText, scriptName);
-                } catch (AssertionError | Exception e) {
-                    if (GroovyLogManager.manager.hasLoggers()) {
-                        StringWriter writer = new StringWriter();
-                        e.printStackTrace(new PrintWriter(writer));
-                        GroovyLogManager.manager.log(TraceCategory.DSL, "Attempted to compile " + scriptName + ", but failed because:\n" + writer.getBuffer());
+                String scriptHash = getContentHash(scriptText);
+                String scriptKey = (scriptFile.getFullPath() != null ? scriptFile.getFullPath().toString() : scriptName);
+                Map<String, CompiledScript> scriptTypes = getCompiledScripts();
+                CompiledScript compiled = scriptTypes.get(scriptKey);
+                Class<?> scriptType = (compiled != null && compiled.hash.equals(scriptHash) ? compiled.type : null);
+                if (scriptType == null) {
+                    try {
+                        scriptType = getGroovyClassLoader().parseClass(scriptText, scriptName);
+                        scriptTypes.put(scriptKey, new CompiledScript(scriptHash, scriptType));
+                    } catch (AssertionError | Exception e) {
+                        scriptTypes.remove(scriptKey);
+                        if (GroovyLogManager.manager.hasLoggers()) {
+                            StringWriter writer = new StringWriter();
+                            e.printStackTrace(new PrintWriter(writer));
+                            GroovyLogManager.manager.log(TraceCategory.DSL, "Attempted to compile " + scriptName + ", but failed because:\n" + writer.getBuffer());
+                        }
+                        return null;
                     }
-                    return null;
+                } else if (GroovyLogManager.manager.hasLoggers()) {
+                    GroovyLogManager.manager.log(TraceCategory.DSL, "Reusing compiled " + scriptName);
                 }
 
                 if (!Script.class.isAssignableFrom(scriptType)) {
@@ -126,6 +197,27 @@ public class DSLDScriptExecutor {
         }
     }
 
+    /**
+     * Returns the compiled script classes of the project, discarding them if
+     * the project's resolved classpath has changed since they were compiled.
+     */
+    private Map<String, CompiledScript> getCompiledScripts() {
+        IClasspathEntry[] classpath;
+        try {
+            classpath = project.getResolvedClasspath(true);
+        } catch (JavaModelException e) {
+            classpath = new IClasspathEntry[0];
+        }
+        IClasspathEntry[] classpathEntries = classpath;
+
+        return compiledScripts.compute(project.getElementName(), (projectName, scripts) -> {
+            if (scripts != null && Arrays.equals(classpathEntries, scripts.classpath)) {
+                return scripts;
+            }
+            return new CompiledScripts(classpathEntries);
+        }).classes;
+    }
+
     /**
      * Returns loader suitable for loading classes using the project's classpath
      * and the workspace's Eclipse, Groovy and Java runtimes.
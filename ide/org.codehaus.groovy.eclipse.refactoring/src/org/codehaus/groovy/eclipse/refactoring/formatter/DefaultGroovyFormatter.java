@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2019 the original author or authors.
+ * Copyright 2009-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -43,7 +43,6 @@ import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITextSelection;
 import org.eclipse.jface.text.TextSelection;
 import org.eclipse.text.edits.MultiTextEdit;
-import org.eclipse.text.edits.ReplaceEdit;
 import org.eclipse.text.edits.TextEdit;
 
 @SuppressWarnings("deprecation")
@@ -59,6 +58,9 @@ public class DefaultGroovyFormatter extends GroovyFormatter {
     private KlenkDocumentScanner tokens;
     private int indentationLevel;
 
+    /** Source of {@link #tokens} and {@link #rootNode}. */
+    private String codebaseSource;
+
     /**
      * Default Formatter for the Groovy-Eclipse Plugin
      *
@@ -101,17 +103,30 @@ public class DefaultGroovyFormatter extends GroovyFormatter {
     }
 
     private void initCodebase() throws Exception {
+        String source = formattedDocument.get();
+        if (source.equals(codebaseSource)) {
+            // previous pass made no changes
+            return;
+        }
+        codebaseSource = null;
         tokens = new KlenkDocumentScanner(formattedDocument);
-        rootNode = ASTTools.getASTNodeFromSource(formattedDocument.get());
+        rootNode = ASTTools.getASTNodeFromSource(source);
         if (rootNode == null) {
             // caused by unparseable file
             throw new Exception("Could not format.  Problem parsing Compilation unit.  Fix all syntax errors and try again.");
         }
+        codebaseSource = source;
     }
 
+    /**
+     * Formats the selected lines or the whole document.  Returns an edit for
+     * each range of changed characters instead of replacing the document, so
+     * markers and undo are not affected outside of the changes.
+     */
     @Override
     public TextEdit format() {
         formattedDocument = new Document(document.get());
+        codebaseSource = null;
         try {
             int length;
             if (!indentOnly) {
@@ -143,7 +158,7 @@ public class DefaultGroovyFormatter extends GroovyFormatter {
             return new MultiTextEdit();
         }
 
-        return new ReplaceEdit(0, document.getLength(), formattedDocument.get());
+        return MinimalTextEdits.create(document.get(), formattedDocument.get());
     }
 
     /**
@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2019 the original author or authors.
+ * Copyright 2009-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,9 +15,13 @@
  */
 package org.codehaus.groovy.eclipse.refactoring.formatter;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import groovyjarjarantlr.CommonToken;
 import groovyjarjarantlr.Token;
 import groovyjarjarantlr.TokenStreamException;
 import org.codehaus.groovy.antlr.GroovySourceToken;
@@ -36,9 +40,13 @@ import org.eclipse.jface.text.ITextSelection;
  * Provides methods to retrieve tokens for a given IDocument presumed to
  * contain Groovy source code.
  * <p>
- * A sophisticated implementation could try to work incrementally and invalidate
- * only some tokens when the document is changed. This implementation is rather
- * naive and clears the whole cache on every document change.
+ * Tokens are updated incrementally when the document is changed.  While
+ * scanning, the lexer state is recorded after every few newline tokens.  After
+ * a change, scanning restarts from the last such checkpoint before the change
+ * and stops at the first checkpoint after the change where the lexer is in the
+ * recorded state again; the tokens that follow are kept and moved to their new
+ * lines.  A second change before the tokens are updated, or a failure to
+ * update them, discards all tokens.
  */
 public class GroovyDocumentScanner implements IDocumentListener {
 
@@ -59,6 +67,20 @@ public class GroovyDocumentScanner implements IDocumentListener {
 
     private GroovyScanner tokenScanner;
 
+    /** Number of newline tokens between checkpoints. */
+    private static final int CHECKPOINT_INTERVAL = 16;
+
+    /**
+     * Positions where scanning can be restarted, in token order.  This may be
+     * null before we have started reading tokens.
+     */
+    private List<Checkpoint> checkpoints;
+
+    /**
+     * The change made to the document since the tokens were scanned or null.
+     */
+    private Damage damage;
+
     /** At most this number of scanner errors will be reported */
     private static int logLimit = 4;
 
@@ -73,11 +95,26 @@ public class GroovyDocumentScanner implements IDocumentListener {
 
     @Override
     public void documentChanged(DocumentEvent event) {
-        reset();
+        if (damage != null) {
+            try {
+                damage.changed(event);
+            } catch (Exception e) {
+                reset();
+            }
+        }
     }
 
     @Override
     public void documentAboutToBeChanged(DocumentEvent event) {
+        if (tokens != null && damage == null) {
+            try {
+                damage = new Damage(event);
+            } catch (Exception e) {
+                reset();
+            }
+        } else {
+            reset();
+        }
     }
 
     /**
@@ -85,27 +122,36 @@ public class GroovyDocumentScanner implements IDocumentListener {
      * scanned tokens, to ensure that we have scanned the file at least upto the
      * position that we are interested in.
      * <p>
-     * Current implementation is very naive and just scans the whole file at
-     * once. A smarter implementation could stop scanning when the position of
-     * interest is reached, and keep enough state to be able to scan onward
-     * later if a request for tokens requires it.
+     * Current implementation scans the whole file at once, or the changed part
+     * of it if the file has been scanned before.
      */
     protected void ensureScanned(int end) {
+        if (tokens != null && damage != null) {
+            Damage change = damage;
+            damage = null;
+            try {
+                rescan(change);
+            } catch (Exception e) {
+                reset();
+            }
+        }
         if (tokens == null) {
             // We haven't started scanning yet. Initialise the scanner and token list.
             tokenScanner = new GroovyScanner(document.get());
-            tokens = getTokensIncludingEOF();
+            checkpoints = new ArrayList<>();
+            tokens = getTokensIncludingEOF(0, checkpoints);
         }
     }
 
-    private List<Token> getTokensIncludingEOF() {
+    /**
+     * Scans tokens until the end of the document, recording checkpoints.
+     *
+     * @param index index of the first token scanned in the token list
+     */
+    private List<Token> getTokensIncludingEOF(int index, List<Checkpoint> newCheckpoints) {
         List<Token> result = new ArrayList<>();
-        Token token;
         try {
-            do {
-                token = nextToken();
-                result.add(token);
-            } while (token.getType() != GroovyTokenTypeBridge.EOF);
+            scan(index, result, newCheckpoints, null);
         } catch (BadLocationException bad) {
             // document may be unreconciled
         } catch (Exception e) {
@@ -116,6 +162,79 @@ public class GroovyDocumentScanner implements IDocumentListener {
         return result;
     }
 
+    /**
+     * Scans tokens until the end of the document or until the lexer is in the
+     * state of a checkpoint from {@code change}.
+     *
+     * @return index of the checkpoint reached or -1 if the end was reached
+     */
+    private int scan(int index, List<Token> result, List<Checkpoint> newCheckpoints, Damage change) throws TokenStreamException, BadLocationException {
+        int newlines = 0, candidate = (change != null ? change.resync : -1);
+        int[] checkpointState = null;
+        Token token;
+        do {
+            token = nextToken();
+            if (checkpointState != null) {
+                newCheckpoints.add(new Checkpoint(index + result.size(), checkpointState));
+                checkpointState = null;
+            }
+            result.add(token);
+
+            if (token.getType() == GroovyTokenTypeBridge.NLS) {
+                int[] state = tokenScanner.getState();
+                if (change != null) {
+                    // old checkpoints whose newline is before this one can no longer be reached
+                    int order = -1;
+                    while (candidate < checkpoints.size() && (order = change.compare(tokens.get(checkpoints.get(candidate).index - 1), token)) < 0) {
+                        candidate += 1;
+                    }
+                    if (order == 0 && Arrays.equals(state, checkpoints.get(candidate).state)) {
+                        return candidate;
+                    }
+                }
+                if (++newlines % CHECKPOINT_INTERVAL == 0) {
+                    checkpointState = state;
+                }
+            }
+        } while (token.getType() != GroovyTokenTypeBridge.EOF);
+        return -1;
+    }
+
+    /**
+     * Scans the changed part of the document and replaces the tokens in it.
+     */
+    private void rescan(Damage change) throws TokenStreamException, BadLocationException {
+        int restartIndex = 0;
+        if (change.restart < 0) {
+            tokenScanner = new GroovyScanner(new DocumentReader(document, 0));
+        } else {
+            Checkpoint restart = checkpoints.get(change.restart);
+            Token token = tokens.get(restart.index); // token starts before the change
+            int offset = GroovyScanner.getOffset(document, token.getLine(), token.getColumn());
+            restartIndex = restart.index;
+            tokenScanner = new GroovyScanner(new DocumentReader(document, offset), token.getLine(), token.getColumn(), restart.state);
+        }
+
+        List<Token> rescanned = new ArrayList<>();
+        List<Checkpoint> newCheckpoints = new ArrayList<>(checkpoints.subList(0, change.restart + 1));
+        int resync = scan(restartIndex, rescanned, newCheckpoints, change);
+
+        List<Token> newTokens = new ArrayList<>(tokens.subList(0, restartIndex));
+        newTokens.addAll(rescanned);
+        if (resync >= 0) {
+            // keep the tokens after the newline of the checkpoint reached
+            int from = checkpoints.get(resync).index, shift = newTokens.size() - from;
+            for (Token token : tokens.subList(from, tokens.size())) {
+                newTokens.add(change.move(token));
+            }
+            for (Checkpoint checkpoint : checkpoints.subList(resync, checkpoints.size())) {
+                newCheckpoints.add(new Checkpoint(checkpoint.index + shift, checkpoint.state));
+            }
+        }
+        tokens = newTokens;
+        checkpoints = newCheckpoints;
+    }
+
     private Token nextToken() throws TokenStreamException, BadLocationException {
         Token token;
         try {
@@ -135,6 +254,8 @@ public class GroovyDocumentScanner implements IDocumentListener {
      */
     private void reset() {
         tokens = null;
+        checkpoints = null;
+        damage = null;
     }
 
     /**
@@ -409,4 +530,136 @@ public class GroovyDocumentScanner implements IDocumentListener {
         int type = result.getType();
         return type == GroovyTokenTypeBridge.WS || type == GroovyTokenTypeBridge.NLS;
     }
+
+    //--------------------------------------------------------------------------
+
+    private static final class Checkpoint {
+        /** Index of the token that follows a newline token. */
+        final int index;
+        /** Lexer state after the newline token. */
+        final int[] state;
+
+        Checkpoint(int index, int[] state) {
+            this.index = index;
+            this.state = state;
+        }
+    }
+
+    /**
+     * Describes a change to the document in terms of the tokens scanned before
+     * the change.
+     */
+    private final class Damage {
+        /** Index of the last checkpoint before the change or -1. */
+        final int restart;
+        /** Index of the first checkpoint whose newline token is after the change. */
+        final int resync;
+        /** Antlr line and column of the end of the change before and after it. */
+        final int oldEndLine, oldEndColumn;
+        int newEndLine, newEndColumn;
+
+        Damage(DocumentEvent event) throws BadLocationException {
+            int offset = event.getOffset(), end = offset + event.getLength();
+
+            int lo = 0, hi = checkpoints.size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (getOffset(tokens.get(checkpoints.get(mid).index)) < offset) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            restart = lo - 1;
+
+            int next = lo;
+            while (next < checkpoints.size() && getOffset(tokens.get(checkpoints.get(next).index - 1)) < end) {
+                next += 1;
+            }
+            resync = next;
+
+            oldEndLine = document.getLineOfOffset(end) + 1;
+            oldEndColumn = end - document.getLineOffset(oldEndLine - 1) + 1;
+        }
+
+        void changed(DocumentEvent event) throws BadLocationException {
+            int end = event.getOffset() + (event.getText() == null ? 0 : event.getText().length());
+            newEndLine = document.getLineOfOffset(end) + 1;
+            newEndColumn = end - document.getLineOffset(newEndLine - 1) + 1;
+        }
+
+        /**
+         * Compares the position of a token scanned after the change with the
+         * position of a token scanned before it, moved by the change.
+         *
+         * @param oldToken token after the end of the change
+         */
+        int compare(Token oldToken, Token newToken) {
+            int line = oldToken.getLine() + newEndLine - oldEndLine, column = oldToken.getColumn();
+            if (oldToken.getLine() == oldEndLine) {
+                column += newEndColumn - oldEndColumn;
+            }
+            if (line != newToken.getLine()) {
+                return Integer.compare(line, newToken.getLine());
+            }
+            return Integer.compare(column, newToken.getColumn());
+        }
+
+        /**
+         * Moves a token that follows a line after the end of the change to its
+         * line after the change.  Tokens may be held by callers, so a copy is
+         * returned instead of changing the token.
+         */
+        Token move(Token token) {
+            int delta = newEndLine - oldEndLine;
+            if (delta == 0) {
+                return token;
+            }
+            Token copy;
+            if (token instanceof GroovySourceToken) {
+                GroovySourceToken gToken = (GroovySourceToken) token, gCopy = new GroovySourceToken(token.getType());
+                gCopy.setLineLast(gToken.getLineLast() + delta);
+                gCopy.setColumnLast(gToken.getColumnLast());
+                copy = gCopy;
+            } else {
+                copy = new CommonToken(token.getType(), null);
+            }
+            copy.setText(token.getText());
+            copy.setLine(token.getLine() + delta);
+            copy.setColumn(token.getColumn());
+            return copy;
+        }
+    }
+
+    /**
+     * Reads the document from an offset without copying the rest of it.
+     */
+    private static final class DocumentReader extends Reader {
+        private final IDocument document;
+        private int offset;
+
+        DocumentReader(IDocument document, int offset) {
+            this.document = document;
+            this.offset = offset;
+        }
+
+        @Override
+        public int read(char[] buffer, int start, int length) throws IOException {
+            int n = Math.min(length, document.getLength() - offset);
+            if (n <= 0) {
+                return (length == 0 ? 0 : -1);
+            }
+            try {
+                document.get(offset, n).getChars(0, n, buffer, start);
+            } catch (BadLocationException e) {
+                throw new IOException(e);
+            }
+            offset += n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
 }
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2009-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.refactoring.formatter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.ReplaceEdit;
+import org.eclipse.text.edits.TextEdit;
+
+/**
+ * Computes the edits that turn a text into its formatted version.  The words
+ * of the texts (identifiers, numbers and single symbols) are matched with
+ * Myers' difference algorithm, and the text between matched words is compared
+ * separately, so a change of whitespace costs nothing to find.  Each edit
+ * covers only the characters that differ, which leaves markers and positions
+ * elsewhere in the document untouched.
+ */
+final class MinimalTextEdits {
+
+    /** Above this number of changed words, words are matched greedily. */
+    private static final int MAX_DIFFERENCES = 2000;
+
+    /** Number of words the greedy match looks ahead in each text. */
+    private static final int LOOKAHEAD = 16;
+
+    private MinimalTextEdits() {
+    }
+
+    /**
+     * @return edits that transform {@code original} into {@code formatted}
+     */
+    static TextEdit create(final String original, final String formatted) {
+        MultiTextEdit edits = new MultiTextEdit();
+
+        Words a = new Words(original), b = new Words(formatted);
+        int[][] matches = matchOptimal(a, b);
+        if (matches == null) {
+            matches = matchGreedy(a, b);
+        }
+
+        int fromA = 0, fromB = 0;
+        for (int k = 0, n = matches[0].length; k <= n; k += 1) {
+            int toA, toB;
+            if (k < n) {
+                toA = a.start(matches[0][k]);
+                toB = b.start(matches[1][k]);
+            } else {
+                toA = original.length();
+                toB = formatted.length();
+            }
+            addEdit(edits, original, fromA, toA, formatted, fromB, toB);
+            if (k < n) {
+                fromA = a.end(matches[0][k]);
+                fromB = b.end(matches[1][k]);
+            }
+        }
+        return edits;
+    }
+
+    /**
+     * Adds an edit that replaces the range of {@code a} with the range of
+     * {@code b}, less the characters at the start and end that are the same.
+     */
+    private static void addEdit(final MultiTextEdit edits, final String a, int fromA, int toA, final String b, int fromB, int toB) {
+        while (fromA < toA && fromB < toB && a.charAt(fromA) == b.charAt(fromB)) {
+            fromA += 1;
+            fromB += 1;
+        }
+        while (fromA < toA && fromB < toB && a.charAt(toA - 1) == b.charAt(toB - 1)) {
+            toA -= 1;
+            toB -= 1;
+        }
+        if (fromA < toA || fromB < toB) {
+            edits.addChild(new ReplaceEdit(fromA, toA - fromA, b.substring(fromB, toB)));
+        }
+    }
+
+    /**
+     * @return indexes of the matching words of {@code a} and {@code b} in
+     *     order or {@code null} if the texts differ in too many words
+     */
+    private static int[][] matchOptimal(final Words a, final Words b) {
+        // words at the start and end that are the same take no part in the search
+        int n = a.size(), m = b.size(), prefix = 0, suffix = 0;
+        while (prefix < n && prefix < m && a.same(prefix, b, prefix)) {
+            prefix += 1;
+        }
+        while (suffix < n - prefix && suffix < m - prefix && a.same(n - 1 - suffix, b, m - 1 - suffix)) {
+            suffix += 1;
+        }
+        int w = n - prefix - suffix, h = m - prefix - suffix, max = Math.min(w + h, MAX_DIFFERENCES);
+        int[] v = new int[2 * max + 3];
+        List<int[]> trace = new ArrayList<>();
+
+        int distance = -1;
+        search: for (int d = 0; d <= max; d += 1) {
+            for (int k = -d; k <= d; k += 2) {
+                int x;
+                if (k == -d || (k != d && v[max + 1 + k - 1] < v[max + 1 + k + 1])) {
+                    x = v[max + 1 + k + 1]; // insertion
+                } else {
+                    x = v[max + 1 + k - 1] + 1; // deletion
+                }
+                int y = x - k;
+                while (x < w && y < h && a.same(prefix + x, b, prefix + y)) {
+                    x += 1;
+                    y += 1;
+                }
+                v[max + 1 + k] = x;
+                if (x >= w && y >= h) {
+                    trace.add(Arrays.copyOfRange(v, max + 1 - d, max + 2 + d));
+                    distance = d;
+                    break search;
+                }
+            }
+            trace.add(Arrays.copyOfRange(v, max + 1 - d, max + 2 + d));
+        }
+        if (distance < 0) {
+            return null;
+        }
+
+        int count = prefix + (w + h - distance) / 2 + suffix;
+        int[][] matches = new int[2][count];
+        for (int i = 0; i < suffix; i += 1) {
+            count -= 1;
+            matches[0][count] = n - 1 - i;
+            matches[1][count] = m - 1 - i;
+        }
+        // walk back from the end, recording the words on diagonals
+        int x = w, y = h;
+        for (int d = distance; d >= 0; d -= 1) {
+            int k = x - y, prevX, prevY;
+            if (d == 0) {
+                prevX = prevY = 0;
+            } else {
+                int[] prev = trace.get(d - 1); // holds k in [-(d-1), d-1]
+                int prevK = (k == -d || (k != d && prev[k - 1 + d - 1] < prev[k + 1 + d - 1])) ? k + 1 : k - 1;
+                prevX = prev[prevK + d - 1];
+                prevY = prevX - prevK;
+            }
+            while (x > prevX && y > prevY) {
+                x -= 1;
+                y -= 1;
+                count -= 1;
+                matches[0][count] = prefix + x;
+                matches[1][count] = prefix + y;
+            }
+            x = prevX;
+            y = prevY;
+        }
+        for (int i = prefix - 1; i >= 0; i -= 1) {
+            count -= 1;
+            matches[0][count] = i;
+            matches[1][count] = i;
+        }
+        return matches;
+    }
+
+    /**
+     * @return indexes of matching words of {@code a} and {@code b} in order;
+     *     after a mismatch, the nearest pair of matching words within the
+     *     lookahead is taken
+     */
+    private static int[][] matchGreedy(final Words a, final Words b) {
+        int n = a.size(), m = b.size(), count = 0;
+        int[][] matches = new int[2][Math.min(n, m)];
+        int i = 0, j = 0;
+        next: while (i < n && j < m) {
+            for (int s = 0; s <= 2 * LOOKAHEAD; s += 1) {
+                for (int p = Math.max(0, s - LOOKAHEAD), q = s - p; p <= Math.min(s, LOOKAHEAD); p += 1, q -= 1) {
+                    if (i + p < n && j + q < m && a.same(i + p, b, j + q)) {
+                        matches[0][count] = i + p;
+                        matches[1][count] = j + q;
+                        count += 1;
+                        i += p + 1;
+                        j += q + 1;
+                        continue next;
+                    }
+                }
+            }
+            i += 1;
+            j += 1;
+        }
+        return new int[][] {Arrays.copyOf(matches[0], count), Arrays.copyOf(matches[1], count)};
+    }
+
+    /**
+     * Runs of identifier characters and single characters other than
+     * whitespace in a text.
+     */
+    private static final class Words {
+        final String text;
+        private int[] starts = new int[64], ends = new int[64];
+        private int size;
+
+        Words(final String text) {
+            this.text = text;
+            for (int i = 0, n = text.length(); i < n;) {
+                char c = text.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i += 1;
+                    continue;
+                }
+                int start = i;
+                if (Character.isJavaIdentifierPart(c)) {
+                    do {
+                        i += 1;
+                    } while (i < n && Character.isJavaIdentifierPart(text.charAt(i)));
+                } else {
+                    i += 1;
+                }
+                add(start, i);
+            }
+        }
+
+        private void add(final int start, final int end) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            size += 1;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int start(final int i) {
+            return starts[i];
+        }
+
+        int end(final int i) {
+            return ends[i];
+        }
+
+        boolean same(final int i, final Words that, final int j) {
+            int length = this.ends[i] - this.starts[i];
+            return (length == that.ends[j] - that.starts[j] &&
+                this.text.regionMatches(this.starts[i], that.text, that.starts[j], length));
+        }
+    }
+}
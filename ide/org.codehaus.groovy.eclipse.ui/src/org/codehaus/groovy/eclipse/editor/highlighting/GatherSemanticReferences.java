@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2019 the original author or authors.
+ * Copyright 2009-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,8 +20,7 @@ import java.util.Collections;
 
 import org.codehaus.groovy.eclipse.preferences.PreferenceConstants;
 import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
-import org.eclipse.jdt.groovy.search.TypeInferencingVisitorFactory;
-import org.eclipse.jdt.groovy.search.TypeInferencingVisitorWithRequestor;
+import org.eclipse.jdt.groovy.search.InferredTypeTable;
 import org.eclipse.jface.preference.IPreferenceStore;
 
 /**
@@ -39,8 +38,7 @@ public class GatherSemanticReferences {
     public Collection<HighlightedTypedPosition> findSemanticHighlightingReferences() {
         if (unit != null) {
             SemanticHighlightingReferenceRequestor requestor = new SemanticHighlightingReferenceRequestor(unit);
-            TypeInferencingVisitorWithRequestor visitor = factory.createVisitor(unit);
-            visitor.visitCompilationUnit(requestor);
+            InferredTypeTable.of(unit).replay(requestor);
             return requestor.typedPositions;
         }
         return Collections.emptySet();
@@ -50,6 +48,4 @@ public class GatherSemanticReferences {
         IPreferenceStore prefs = PreferenceConstants.getPreferenceStore();
         return prefs.getBoolean(PreferenceConstants.GROOVY_SEMANTIC_HIGHLIGHTING);
     }
-
-    private static TypeInferencingVisitorFactory factory = new TypeInferencingVisitorFactory();
 }
@@ -53,7 +53,6 @@ import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.groovy.core.util.GroovyUtils;
 import org.eclipse.jdt.groovy.search.TypeLookupResult;
-import org.eclipse.jdt.groovy.search.VariableScope;
 import org.eclipse.jdt.internal.core.ImportDeclaration;
 import org.eclipse.jdt.internal.core.SourceType;
 import org.eclipse.jdt.internal.core.util.Util;
@@ -175,13 +174,13 @@ public class SemanticHighlightingReferenceRequestor extends SemanticReferenceReq
             if (var != null) {
                 typedPositions.add(new HighlightedTypedPosition(var.getStart(), var.getLength(), HighlightKind.RESERVED));
             }
-            pos = handleParameterReference((Parameter) node, result.scope);
+            pos = handleParameterReference((Parameter) node, result);
 
         } else if (node instanceof VariableExpression) {
             if (result.declaration instanceof MethodNode) {
                 pos = handleMethodReference((Expression) node, result, false);
             } else {
-                pos = handleVariableExpression((VariableExpression) node, result.scope, enclosingElement);
+                pos = handleVariableExpression((VariableExpression) node, result, enclosingElement);
             }
         } else if (node instanceof ConstantExpression) {
             if (result.declaration instanceof MethodNode) {
@@ -404,9 +403,9 @@ public class SemanticHighlightingReferenceRequestor extends SemanticReferenceReq
         return new HighlightedTypedPosition(offset, length, kind);
     }
 
-    private HighlightedTypedPosition handleParameterReference(final Parameter param, final VariableScope scope) {
+    private HighlightedTypedPosition handleParameterReference(final Parameter param, final TypeLookupResult result) {
         HighlightKind kind;
-        if (isCatchParam(param, scope) || isForLoopParam(param, scope)) {
+        if (isCatchParam(param, result) || isForLoopParam(param, result)) {
             kind = HighlightKind.VARIABLE; // treat block params as vars
         } else {
             kind = HighlightKind.PARAMETER;
@@ -416,10 +415,10 @@ public class SemanticHighlightingReferenceRequestor extends SemanticReferenceReq
     }
 
     // could be local variable declaration, local variable reference, for-each parameter reference, or method parameter reference
-    private HighlightedTypedPosition handleVariableExpression(VariableExpression expr, VariableScope scope, IJavaElement source) {
+    private HighlightedTypedPosition handleVariableExpression(VariableExpression expr, TypeLookupResult result, IJavaElement source) {
         boolean isParam = (expr.getAccessedVariable() instanceof Parameter &&
-                !isForLoopParam(expr.getAccessedVariable(), scope)) &&
-                !isCatchParam(expr.getAccessedVariable(), scope);
+                !isForLoopParam(expr.getAccessedVariable(), result)) &&
+                !isCatchParam(expr.getAccessedVariable(), result);
         boolean isIt = (isParam && "it".equals(expr.getName()) &&
                 (((Parameter) expr.getAccessedVariable()).getLineNumber() <= 0));
         boolean isSuperOrThis = "super".equals(expr.getName()) || "this".equals(expr.getName());
@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2019 the original author or authors.
+ * Copyright 2009-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,7 @@ import org.codehaus.groovy.ast.expr.StaticMethodCallExpression;
 import org.codehaus.groovy.ast.stmt.CatchStatement;
 import org.codehaus.groovy.ast.stmt.ForStatement;
 import org.eclipse.jdt.groovy.search.ITypeRequestor;
+import org.eclipse.jdt.groovy.search.TypeLookupResult;
 import org.eclipse.jdt.groovy.search.VariableScope;
 import org.eclipse.jface.text.Position;
 
@@ -76,14 +77,20 @@ public abstract class SemanticReferenceRequestor implements ITypeRequestor {
         return false;
     }
 
-    protected static boolean isForLoopParam(Variable param, VariableScope scope) {
-        VariableScope.VariableInfo info = scope.lookupName(param.getName());
-        return (info != null && info.scopeNode instanceof ForStatement);
+    protected static boolean isForLoopParam(Variable param, TypeLookupResult result) {
+        return (getScopeNode(param, result) instanceof ForStatement);
     }
 
-    protected static boolean isCatchParam(Variable param, VariableScope scope) {
-        VariableScope.VariableInfo info = scope.lookupName(param.getName());
-        return (info != null && info.scopeNode instanceof CatchStatement);
+    protected static boolean isCatchParam(Variable param, TypeLookupResult result) {
+        return (getScopeNode(param, result) instanceof CatchStatement);
+    }
+
+    private static ASTNode getScopeNode(Variable param, TypeLookupResult result) {
+        if (result.parameterScopeNode != null) {
+            return result.parameterScopeNode; // recorded during visit
+        }
+        VariableScope.VariableInfo info = result.scope.lookupName(param.getName());
+        return (info != null ? info.scopeNode : null);
     }
 
     protected static boolean isNumber(ClassNode type) {
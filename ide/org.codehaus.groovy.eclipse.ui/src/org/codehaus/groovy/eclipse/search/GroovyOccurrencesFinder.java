@@ -41,8 +41,7 @@ import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
 import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.SourceRange;
 import org.eclipse.jdt.core.dom.CompilationUnit;
-import org.eclipse.jdt.groovy.search.TypeInferencingVisitorFactory;
-import org.eclipse.jdt.groovy.search.TypeInferencingVisitorWithRequestor;
+import org.eclipse.jdt.groovy.search.InferredTypeTable;
 import org.eclipse.jdt.internal.core.manipulation.search.IOccurrencesFinder;
 import org.eclipse.jdt.internal.ui.search.FindOccurrencesEngine;
 
@@ -134,8 +133,7 @@ public class GroovyOccurrencesFinder implements IOccurrencesFinder {
                 !(nodeToLookFor instanceof BinaryExpression) &&
                 !(nodeToLookFor instanceof MethodCallExpression)) {
             FindAllReferencesRequestor requestor = new FindAllReferencesRequestor(nodeToLookFor);
-            TypeInferencingVisitorWithRequestor visitor = new TypeInferencingVisitorFactory().createVisitor(gunit);
-            visitor.visitCompilationUnit(requestor);
+            InferredTypeTable.of(gunit).replay(requestor);
             Map<ASTNode, Integer> occurences = requestor.getReferences();
             return occurences;
         }
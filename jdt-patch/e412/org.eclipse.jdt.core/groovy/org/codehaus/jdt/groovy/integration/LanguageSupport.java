@@ -17,9 +17,13 @@ package org.codehaus.jdt.groovy.integration;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.IClassFile;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.JavaModelException;
@@ -122,6 +126,30 @@ public interface LanguageSupport {
 	 */
 	boolean maybePerformDelegatedSearch(PossibleMatch possibleMatch, SearchPattern pattern, SearchRequestor requestor);
 
+	/**
+	 * Maybe perform a search for each of the possible matches using special language support.
+	 * Implementations may search the possible matches concurrently, but results must be sent
+	 * to the SearchRequestor from one thread at a time and in the order of the possible matches.
+	 * @param possibleMatches the possible matches to look for
+	 * @param pattern
+	 * @param requestor the requestor to send any completed search results to
+	 * @param monitor the progress monitor of the search, may be null
+	 * @return the possible matches for which the search was performed
+	 * @throws OperationCanceledException if the monitor is canceled
+	 */
+	default Set<PossibleMatch> maybePerformDelegatedSearch(List<PossibleMatch> possibleMatches, SearchPattern pattern, SearchRequestor requestor, IProgressMonitor monitor) {
+		Set<PossibleMatch> searched = new HashSet<>();
+		for (PossibleMatch possibleMatch : possibleMatches) {
+			if (monitor != null && monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			if (maybePerformDelegatedSearch(possibleMatch, pattern, requestor)) {
+				searched.add(possibleMatch);
+			}
+		}
+		return searched;
+	}
+
 	EventHandler getEventHandler();
 
 	void filterNonSourceMembers(BinaryType binaryType);
@@ -1266,6 +1266,17 @@ protected void locateMatches(JavaProject javaProject, PossibleMatch[] possibleMa
 	// GROOVY add
 	final boolean isInterestingProject = LanguageSupportFactory.isInterestingProject(javaProject.getProject());
 	HashSet<PossibleMatch> alreadyMatched = new HashSet<PossibleMatch>();
+	PossibleMatch similarMatch = null;
+	if (isInterestingProject) {
+		List<PossibleMatch> interestingMatches = new ArrayList<PossibleMatch>();
+		for (int i = start, maxUnits = start + length; i < maxUnits; i++) {
+			PossibleMatch possibleMatch = possibleMatches[i];
+			if (!skipMatch(javaProject, possibleMatch) && possibleMatch.isInterestingSourceFile()) {
+				interestingMatches.add(possibleMatch);
+			}
+		}
+		alreadyMatched.addAll(LanguageSupportFactory.maybePerformDelegatedSearch(interestingMatches, this.pattern, this.requestor, this.progressMonitor));
+	}
 	// GROOVY end
 	// create and resolve binding (equivalent to beginCompilation() in Compiler)
 	boolean mustResolvePattern = this.pattern.mustResolve;
@@ -1276,8 +1287,8 @@ protected void locateMatches(JavaProject javaProject, PossibleMatch[] possibleMa
 		for (int i = start, maxUnits = start + length; i < maxUnits; i++) {
 			PossibleMatch possibleMatch = possibleMatches[i];
 			if (skipMatch(javaProject, possibleMatch)) continue;
-			// GROOVY add
-			if (isInterestingProject && possibleMatch.isInterestingSourceFile() && LanguageSupportFactory.maybePerformDelegatedSearch(possibleMatch, this.pattern, this.requestor)) {
+			// GROOVY add -- similar matches are not part of the batch searched above
+			if (isInterestingProject && possibleMatch == similarMatch && possibleMatch.isInterestingSourceFile() && LanguageSupportFactory.maybePerformDelegatedSearch(possibleMatch, this.pattern, this.requestor)) {
 				alreadyMatched.add(possibleMatch);
 			}
 			// GROOVY end
@@ -1314,6 +1325,9 @@ protected void locateMatches(JavaProject javaProject, PossibleMatch[] possibleMa
 					// If there is similar match, then also process it
 					// see bug https://bugs.eclipse.org/bugs/show_bug.cgi?id=211872
 					possibleMatches[i] = possibleMatch.getSimilarMatch();
+					// GROOVY add
+					similarMatch = possibleMatches[i];
+					// GROOVY end
 					i--;
 				}
 				if (!possibleMatch.nodeSet.mustResolve)
@@ -16,6 +16,8 @@
 package org.codehaus.jdt.groovy.integration;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -118,6 +120,10 @@ public class LanguageSupportFactory {
 		return getLanguageSupport().maybePerformDelegatedSearch(possibleMatch, pattern, requestor);
 	}
 
+	public static Set<PossibleMatch> maybePerformDelegatedSearch(List<PossibleMatch> possibleMatches, SearchPattern pattern, SearchRequestor requestor, IProgressMonitor monitor) {
+		return getLanguageSupport().maybePerformDelegatedSearch(possibleMatches, pattern, requestor, monitor);
+	}
+
 	/**
 	 * Removes members from this binary type that are not mapped to locations in the
 	 * source code (ie- their source location is invalid).  This ensures that